@@ -1,30 +1,44 @@
 package br.nataliakt.e2048;
 
 import br.nataliakt.e2048.controller.GameController;
+import br.nataliakt.e2048.engine.Expectimax;
 import br.nataliakt.e2048.ga.Generation;
 import br.nataliakt.e2048.model.Game;
 import br.nataliakt.e2048.model.MovimentEnum;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class PlayAlone  extends Application {
 
+    private static final long AUTO_PLAY_INTERVAL = 100; // Milliseconds between the swipes of the solver
+
     @Override
     public void start(Stage primaryStage) throws Exception {
         FXMLLoader loader = new FXMLLoader(getClass().getResource("view/game.fxml"));
         Parent root = (Parent) loader.load();
 
-        Generation generation = new Generation(4, 0, 2, 1, Game.class);
+        Generation generation = new Generation(4, 0, 1);
         GameController controller = loader.getController();
-        Game game = new Game(generation, new int[]{0,0});
+        Game game = new Game(generation, new int[1]);
         controller.setGame(game);
         controller.setPlayAlone(true);
 
+        // A or the argument "auto" lets the expectimax solver play
+        AtomicBoolean auto = new AtomicBoolean(getParameters().getRaw().contains("auto"));
+        autoPlay(game, auto);
+
         primaryStage.setTitle("2048");
         Scene scene = new Scene(root, 300, 350);
         primaryStage.setScene(scene);
@@ -32,6 +46,10 @@ public class PlayAlone  extends Application {
         scene.setOnKeyReleased(new EventHandler<KeyEvent>() {
             @Override
             public void handle(KeyEvent event) {
+                // The solver owns the board while it plays
+                if (auto.get() && event.getCode() != KeyCode.A) {
+                    return;
+                }
                 switch (event.getCode()) {
                     case DOWN:
                         game.swipe(MovimentEnum.DOWN);
@@ -45,12 +63,49 @@ public class PlayAlone  extends Application {
                     case RIGHT:
                         game.swipe(MovimentEnum.RIGHT);
                         break;
+                    case A:
+                        auto.set(!auto.get());
+                        break;
                 }
             }
         });
         primaryStage.show();
     }
 
+    /**
+     * Swipe with the solver while the auto-play mode is on
+     * The board is read and swiped in the screen thread, the solver runs in the common pool
+     * @param game
+     * @param auto
+     */
+    private void autoPlay(Game game, AtomicBoolean auto) {
+        Expectimax solver = new Expectimax(game.getEngine());
+        AtomicBoolean busy = new AtomicBoolean();
+        Timer timer = new Timer(true);
+        timer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                if (!auto.get() || !busy.compareAndSet(false, true)) {
+                    return;
+                }
+                Platform.runLater(() -> {
+                    long[] board = game.getPackedBoard();
+                    CompletableFuture.supplyAsync(() -> solver.best(board))
+                            .whenComplete((direction, error) -> Platform.runLater(() -> {
+                                if (error != null) {
+                                    error.printStackTrace();
+                                } else if (direction < 0) {
+                                    auto.set(false);
+                                } else if (auto.get()) {
+                                    game.swipe(MovimentEnum.find(direction));
+                                }
+                                busy.set(false);
+                            }));
+                });
+            }
+        }, AUTO_PLAY_INTERVAL, AUTO_PLAY_INTERVAL);
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,67 @@
+package br.nataliakt.e2048;
+
+import br.nataliakt.e2048.sweep.SweepConfig;
+import br.nataliakt.e2048.sweep.SweepResult;
+import br.nataliakt.e2048.sweep.SweepRunner;
+import br.nataliakt.e2048.sweep.SweepSpec;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Headless sweep of the parameters, with arguments like
+ * mutation=0.001,0.005,0.01 chromosome=200..600 generation=8,32 samples=20 min=4 max=32 out=sweep.tsv
+ * Without samples (or with samples=0) every combination of the lists is played
+ */
+public class Sweep {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        options.put("mutation", "0.005");
+        options.put("chromosome", "400");
+        options.put("generation", "8");
+        options.put("samples", "0");
+        options.put("min", "4");
+        options.put("max", "32");
+        options.put("eta", "2");
+        options.put("cores", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        options.put("budget", options.get("cores"));
+        options.put("seed", String.valueOf(new Random().nextLong()));
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0 || !options.containsKey(arg.substring(0, equals)) && !arg.startsWith("out=")) {
+                System.err.println("Argumento desconhecido: " + arg);
+                return;
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+
+        SweepSpec spec = new SweepSpec(SweepSpec.Parameter.parse(options.get("mutation")),
+                SweepSpec.Parameter.parse(options.get("chromosome")),
+                SweepSpec.Parameter.parse(options.get("generation")));
+        long seed = Long.parseLong(options.get("seed"));
+        int samples = Integer.parseInt(options.get("samples"));
+        List<SweepConfig> configs = samples > 0 ? spec.random(samples, new Random(seed)) : spec.grid();
+
+        SweepRunner runner = new SweepRunner(Integer.parseInt(options.get("cores")),
+                Integer.parseInt(options.get("budget")), Integer.parseInt(options.get("min")),
+                Integer.parseInt(options.get("max")), Integer.parseInt(options.get("eta")), seed);
+        List<SweepResult> results = runner.run(configs);
+
+        String out = options.get("out");
+        if (out == null) {
+            SweepRunner.writeTable(results, System.out);
+        } else {
+            try (Writer writer = Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8)) {
+                SweepRunner.writeTable(results, writer);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.nataliakt.e2048.controller;
 
 import br.nataliakt.e2048.model.Game;
 import javafx.application.Platform;
+import javafx.beans.binding.Binding;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
@@ -12,6 +13,9 @@ import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.RowConstraints;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 public class GameController {
 
@@ -26,6 +30,8 @@ public class GameController {
 
     private Game game;
     private boolean playAlone = false;
+    private Label[][] numbers;
+    private final List<Binding<?>> bindings = new ArrayList<>();
 
     @FXML
     public void initialize() {
@@ -35,34 +41,87 @@ public class GameController {
     }
 
     private void newGame() {
-        scoreLabel.textProperty().bind(game.getScore().asString());
-        movimentsLabel.textProperty().bind(game.getMoviments().asString());
+        unbind();
+        scoreLabel.textProperty().bind(bind(game.getScore().asString()));
+        movimentsLabel.textProperty().bind(bind(game.getMoviments().asString()));
         updateGrid();
         if (!playAlone) {
             game.start();
         }
     }
 
+    /**
+     * Show another game in the same view, the labels of the grid are reused when the size is the same
+     * Must run in the screen thread
+     * @param game
+     */
+    public void show(Game game) {
+        this.game = game;
+        newGame();
+    }
+
+    /**
+     * Release the game: the labels stop following it and its properties lose the listeners of this view
+     * Must run in the screen thread, before the game is reused in another thread
+     */
+    public void unbind() {
+        scoreLabel.textProperty().unbind();
+        movimentsLabel.textProperty().unbind();
+        if (numbers != null) {
+            for (Label[] line : numbers) {
+                for (Label number : line) {
+                    number.textProperty().unbind();
+                }
+            }
+        }
+        bindings.forEach(Binding::dispose);
+        bindings.clear();
+    }
+
+    private <B extends Binding<?>> B bind(B binding) {
+        bindings.add(binding);
+        return binding;
+    }
+
     private void updateGrid() {
-        for (int i = 0; i < Game.WIDTH; i++) {
+        if (numbers == null || numbers.length != game.getHeight() || numbers[0].length != game.getWidth()) {
+            buildGrid();
+        }
+        for (int i = 0; i < game.getHeight(); i++) {
+            for (int j = 0; j < game.getWidth(); j++) {
+                numbers[i][j].textProperty().bind(bind(Bindings
+                        .when(bind(game.getBoard()[i][j].isEqualTo(0)))
+                        .then(new SimpleStringProperty(""))
+                        .otherwise(bind(game.getBoard()[i][j].asString()))));
+            }
+        }
+    }
+
+    private void buildGrid() {
+        gameGrid.getColumnConstraints().clear();
+        gameGrid.getRowConstraints().clear();
+        if (numbers != null) {
+            for (Label[] line : numbers) {
+                gameGrid.getChildren().removeAll(line);
+            }
+        }
+        for (int i = 0; i < game.getWidth(); i++) {
             ColumnConstraints colConst = new ColumnConstraints();
-            colConst.setPercentWidth(100.0 / Game.WIDTH);
+            colConst.setPercentWidth(100.0 / game.getWidth());
             colConst.setHalignment(HPos.CENTER);
             gameGrid.getColumnConstraints().add(colConst);
         }
-        for (int i = 0; i < Game.HEIGHT; i++) {
+        for (int i = 0; i < game.getHeight(); i++) {
             RowConstraints rowConst = new RowConstraints();
             rowConst.setValignment(VPos.CENTER);
-            rowConst.setPercentHeight(100.0 / Game.HEIGHT);
+            rowConst.setPercentHeight(100.0 / game.getHeight());
             gameGrid.getRowConstraints().add(rowConst);
         }
-        for (int i = 0; i < Game.HEIGHT; i++) {
-            for (int j = 0; j < Game.WIDTH; j++) {
+        numbers = new Label[game.getHeight()][game.getWidth()];
+        for (int i = 0; i < game.getHeight(); i++) {
+            for (int j = 0; j < game.getWidth(); j++) {
                 Label number = new Label();
-                number.textProperty().bind(Bindings
-                        .when(game.getBoard()[i][j].isEqualTo(0))
-                        .then(new SimpleStringProperty(""))
-                        .otherwise(game.getBoard()[i][j].asString()));
+                numbers[i][j] = number;
                 gameGrid.add(number, j, i);
             }
         }
@@ -1,21 +1,46 @@
 package br.nataliakt.e2048.controller;
 
+import br.nataliakt.e2048.engine.BatchEvaluator;
+import br.nataliakt.e2048.engine.BoardEngine;
+import br.nataliakt.e2048.engine.Evaluator;
+import br.nataliakt.e2048.engine.EventLog;
+import br.nataliakt.e2048.engine.EventPublisher;
+import br.nataliakt.e2048.engine.Expectimax;
+import br.nataliakt.e2048.engine.FitnessMemo;
+import br.nataliakt.e2048.engine.GenerationEvaluator;
+import br.nataliakt.e2048.engine.GenerationEvent;
+import br.nataliakt.e2048.engine.GenerationPipeline;
+import br.nataliakt.e2048.engine.GenomeArchive;
+import br.nataliakt.e2048.engine.Heuristic;
+import br.nataliakt.e2048.engine.Policy;
+import br.nataliakt.e2048.engine.Replay;
+import br.nataliakt.e2048.ga.AdaptiveMutation;
 import br.nataliakt.e2048.ga.Chromosome;
+import br.nataliakt.e2048.ga.ChromosomePool;
 import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.ga.Lineage;
 import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.PolicyGame;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.FlowPane;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 public class PlaygroundController {
 
@@ -25,6 +50,21 @@ public class PlaygroundController {
     private static final double MUTATION = 0.005;
     private static final int CHROMOSOME_SIZE = 400; // Number of moviments
     private static final int GENERATION_SIZE = 8; // Simultaneous games
+    private static final int BOARD_WIDTH = 4;
+    private static final int BOARD_HEIGHT = 4;
+    private static final int ELITISM = 1; // Best games carried over
+    private static final int STEADY_STATE = 0; // Worst games replaced, 0 to replace all
+    private static final boolean HEADLESS = false; // Play the games before showing them
+    private static final boolean BATCH = false; // Play the headless move scripts together in flat arrays
+    private static final boolean ADAPTIVE_MUTATION = false; // Raise the mutation when the population collapses
+    private static final boolean POLICY = false; // Genes as a table of swipes by board shape, not a move script
+    private static final boolean MULTI_OBJECTIVE = false; // Select by score, best number and moviments together
+    // Weights of the score, empty cells, monotonicity, smoothness, corner and merges, null to use the score
+    private static final double[] HEURISTIC = null;
+    private static final long SPAWN_SEED = 0; // Seed of the new numbers, 0 for a random one
+    private static final String ARCHIVE = null; // Directory of the results kept between runs, needs a spawn seed
+    private static final String EVENT_LOG = null; // File with a line for each generation
+    private static final int EXPECTIMAX_DEPTH = 0; // Depth of the reference solver in the stats, 0 for none
 
 
     @FXML
@@ -43,11 +83,60 @@ public class PlaygroundController {
     private FlowPane playgroundPane;
 
     private Generation<Game> generation;
+    private final Evaluator evaluator = new Evaluator();
+    private final BatchEvaluator batchEvaluator = new BatchEvaluator();
+    private final GenerationEvaluator headless = BATCH && !POLICY ? batchEvaluator : evaluator; // Policies use the Evaluator
+    private final FitnessMemo memo = new FitnessMemo();
+    private Replay bestReplay; // Best game of the run, without its properties
+    private final Lineage lineage = new Lineage();
+    private final GenerationPipeline pipeline = new GenerationPipeline(HEADLESS ? headless : null);
+    private final EventPublisher<GenerationEvent> events = new EventPublisher<>();
+    private final ChromosomePool pool = new ChromosomePool();
+    private final Deque<AnchorPane> views = new ArrayDeque<>(); // Views of the last generation to reuse
+    private CompletableFuture<Expectimax.Result> reference; // Solver game with the same seed and moviments
 
     @FXML
     public void initialize() {
+        evaluator.setMemo(memo);
+        batchEvaluator.setMemo(memo);
+        if (ARCHIVE != null) {
+            try {
+                memo.setArchive(new GenomeArchive(Paths.get(ARCHIVE)));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (EVENT_LOG != null) {
+            events.subscribe(new EventLog(Paths.get(EVENT_LOG)));
+        }
         try {
-            generation = new Generation(4, MUTATION, CHROMOSOME_SIZE, GENERATION_SIZE, Game.class);
+            generation = new Generation(4, MUTATION, POLICY ? 1 << Policy.TABLE_BITS : CHROMOSOME_SIZE);
+            generation.setBoardSize(BOARD_WIDTH, BOARD_HEIGHT);
+            generation.setElitism(ELITISM);
+            generation.setSteadyState(STEADY_STATE);
+            generation.setLineage(lineage);
+            generation.setPool(pool);
+            generation.setMultiObjective(MULTI_OBJECTIVE);
+            if (HEURISTIC != null) {
+                generation.setHeuristic(new Heuristic(HEURISTIC));
+            }
+            if (ADAPTIVE_MUTATION) {
+                generation.setAdaptiveMutation(new AdaptiveMutation(0.05, 0.3, 1.5, 0.001, 0.05));
+            }
+            if (SPAWN_SEED != 0) {
+                generation.setSpawnSeed(SPAWN_SEED);
+            }
+            Class<? extends Game> gameClass = POLICY ? PolicyGame.class : Game.class;
+            generation.randomGeneration(GENERATION_SIZE, gameClass);
+            if (EXPECTIMAX_DEPTH > 0) {
+                long seed = generation.getSpawnSeed();
+                reference = CompletableFuture.supplyAsync(() -> new Expectimax(BoardEngine.of(BOARD_WIDTH, BOARD_HEIGHT),
+                        EXPECTIMAX_DEPTH, Expectimax.MIN_PROBABILITY, new Heuristic(Expectimax.WEIGHTS),
+                        ForkJoinPool.commonPool()).play(seed, CHROMOSOME_SIZE));
+            }
+            if (HEADLESS) {
+                headless.evaluate(generation);
+            }
             start();
         } catch (NoSuchMethodException e) {
             e.printStackTrace();
@@ -61,8 +150,19 @@ public class PlaygroundController {
     }
 
     private void start() {
+        if (HEADLESS) {
+            // The games are already finished, the next generation is prepared while they are shown
+            pipeline.prefetch(generation);
+        }
         generation.getChromosomeList().forEach(chromosome -> {
             Platform.runLater(() -> {
+                // A view of the last generation shows the game when there is one
+                if (!views.isEmpty()) {
+                    AnchorPane root = views.pop();
+                    ((GameController) root.getUserData()).show(chromosome);
+                    playgroundPane.getChildren().add(root);
+                    return;
+                }
                 FXMLLoader loader = new FXMLLoader(getClass().getResource("../view/game.fxml"));
 
                 AnchorPane root;
@@ -75,6 +175,7 @@ public class PlaygroundController {
 
                 GameController controller = loader.<GameController>getController();
                 controller.setGame((Game) chromosome);
+                root.setUserData(controller);
 
                 playgroundPane.getChildren().add(root);
             });
@@ -98,17 +199,39 @@ public class PlaygroundController {
     private void nextGeneration() {
         Platform.runLater(() -> {
             updateScreenValues(true);
+            events.publish(GenerationEvent.of(generation));
             if (generation.getId() == GENERATIONS_LIMIT ||
                     Integer.parseInt(bestNumberLabel.getText()) >= NUMBER_LIMIT ||
                     Integer.parseInt(bestFitnessLabel.getText()) >= FITNESS_LIMIT) {
+                events.close();
                 return;
             }
 
-            playgroundPane.getChildren().clear();
-            generation = generation.nextGeneration(Game.class);
-            generationLabel.setText(String.valueOf(generation.getId()));
-
-            start();
+            if (!pipeline.isPending()) {
+                pipeline.prefetch(generation);
+            }
+            // Switch at the end of a frame once the next generation is ready
+            new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    Generation<Game> next = pipeline.poll();
+                    if (next == null) {
+                        return;
+                    }
+                    stop();
+                    // The views let go of the old games before they go back to the pool,
+                    // the pipeline resets them as soon as start() prefetches
+                    for (Node view : playgroundPane.getChildren()) {
+                        ((GameController) view.getUserData()).unbind();
+                        views.push((AnchorPane) view);
+                    }
+                    playgroundPane.getChildren().clear();
+                    generation.recycle();
+                    generation = next;
+                    generationLabel.setText(String.valueOf(generation.getId()));
+                    start();
+                }
+            }.start();
         });
     }
 
@@ -124,6 +247,7 @@ public class PlaygroundController {
             int oldBestFitness = Integer.parseInt(bestFitnessLabel.getText());
             if (bestFitness.getFitness() > oldBestFitness) {
                 bestFitnessLabel.setText(String.valueOf(bestFitness.getFitness()));
+                bestReplay = Replay.record(bestFitness);
             }
             final int[] max = {2};
             generation.getChromosomeList().forEach(game -> {
@@ -153,6 +277,25 @@ public class PlaygroundController {
                 System.out.println("Melhor Fitness: " + bestFitnessLabel.getText());
                 System.out.println("Melhor Número: " + bestNumberLabel.getText());
                 System.out.println("Melhor Movimento: " + bestMovimentLabel.getText());
+                if (bestReplay != null) {
+                    System.out.println("Melhor Jogo: geração " + bestReplay.getGenerationId()
+                            + ", cromossomo " + bestReplay.getChromosomeId()
+                            + ", linhagem " + lineage.getLine(bestReplay.getChromosomeId()).length);
+                }
+                if (reference != null && reference.isDone()) {
+                    Expectimax.Result result = reference.join();
+                    System.out.println("Referência Expectimax: " + result.getScore() + " pontos, "
+                            + Math.round(result.getNodesPerSecond()) + " tabuleiros/s");
+                }
+                System.out.println("Diversidade: " + generation.getDiversity());
+                System.out.println("Mutação: " + generation.getMutation());
+                if (MULTI_OBJECTIVE) {
+                    System.out.println("Fronteira de Pareto: " + generation.getParetoFront().size() + " jogos");
+                }
+                if (HEADLESS) {
+                    System.out.println("Memo: " + memo.getHits() + " acertos (" + memo.getArchived() + " do arquivo), "
+                            + memo.getMisses() + " erros");
+                }
 //            System.out.println(generation);
                 System.out.println();
                 System.out.println();
@@ -0,0 +1,123 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.AsyncPool;
+import br.nataliakt.e2048.ga.Chromosome;
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evolution without generations: each worker chooses parents from the pool, breeds and plays
+ * the children and offers them to the pool, without waiting for the other workers
+ * The generation only gives the settings (mutation, crossover, board) and the children are bound to it
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class AsyncEvolution {
+
+    public static final int TOURNAMENT = 3;
+
+    private final Generation<Game> settings;
+    private final AsyncPool pool;
+    private final Evaluator evaluator;
+    private final int workers;
+    private final AtomicLong evaluations;
+    private volatile boolean stopped;
+
+    /**
+     * Constructor with the first population
+     * @param generation the settings and the first games, played and offered to the pool
+     * @param capacity number of games kept in the pool
+     * @param evaluator
+     * @param workers number of threads
+     * @throws IllegalArgumentException when the pool starts with less than two games, as no pair could be bred
+     */
+    public AsyncEvolution(Generation<Game> generation, int capacity, Evaluator evaluator, int workers) {
+        assert workers > 0;
+        settings = generation;
+        pool = new AsyncPool(capacity);
+        this.evaluator = evaluator;
+        this.workers = workers;
+        evaluations = new AtomicLong();
+        evaluator.evaluate(generation);
+        generation.getChromosomeList().forEach(pool::offer);
+        if (pool.size() < 2) {
+            throw new IllegalArgumentException("The pool needs two games to breed, it has " + pool.size());
+        }
+    }
+
+    /**
+     * Play children until a number of evaluations, or until it is stopped
+     * @param limit number of games played by all the workers
+     * @throws InterruptedException
+     */
+    public void run(long limit) throws InterruptedException {
+        stopped = false;
+        Thread[] threads = new Thread[workers];
+        RuntimeException[] failure = new RuntimeException[1];
+        for (int w = 0; w < workers; w++) {
+            threads[w] = new Thread(() -> {
+                try {
+                    work(limit);
+                } catch (RuntimeException e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                    stopped = true;
+                }
+            }, "async-evolution-" + w);
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    private void work(long limit) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!stopped && evaluations.get() < limit) {
+            Chromosome mom = pool.select(TOURNAMENT, random);
+            Chromosome dad = pool.select(TOURNAMENT, random);
+            if (mom == dad) {
+                continue;
+            }
+            List<Chromosome> children;
+            try {
+                children = settings.breed(mom, dad, settings.getChromosomeClass());
+            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
+                throw new IllegalStateException("Child not built", e);
+            }
+            for (Chromosome child : children) {
+                evaluator.evaluate((Game) child);
+                evaluations.incrementAndGet();
+                pool.offer(child);
+            }
+        }
+    }
+
+    /**
+     * Stop the workers after their current children
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public AsyncPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Number of children played
+     * @return
+     */
+    public long getEvaluations() {
+        return evaluations.get();
+    }
+}
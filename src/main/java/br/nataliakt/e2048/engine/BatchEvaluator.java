@@ -0,0 +1,240 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.ga.PackedGenes;
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.PolicyGame;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many games together, gene index by gene index
+ * The games are split in chunks and each chunk keeps its boards, scores, moviments
+ * and genes in flat arrays (structure of arrays) with the live slots in a bitset.
+ * The games that can not move are compacted out of the chunk, so each step only
+ * loops over contiguous live games, swiping all of them with one call to the engine
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class BatchEvaluator implements GenerationEvaluator {
+
+    public static final int CHUNK_SIZE = 1024;
+
+    private final int chunkSize;
+    private final LongAdder simulated;
+    private FitnessMemo memo;
+
+    /**
+     * Constructor with the default chunk size
+     */
+    public BatchEvaluator() {
+        this(CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor with the chunk size
+     * @param chunkSize games played together by a thread
+     */
+    public BatchEvaluator(int chunkSize) {
+        assert chunkSize > 0;
+        this.chunkSize = chunkSize;
+        simulated = new LongAdder();
+    }
+
+    /**
+     * Evaluate in parallel the games of a generation that are still running
+     * @param generation
+     */
+    @Override
+    public void evaluate(Generation<? extends Game> generation) {
+        evaluate(generation.getChromosomeList().filter(Game::isRunning).collect(Collectors.toList()));
+        if (memo != null) {
+            memo.advance();
+        }
+    }
+
+    /**
+     * Evaluate in parallel a list of games with the same board size, spawn seed and gene limit
+     * @param games move scripts, the policies are played by the Evaluator
+     * @throws IllegalArgumentException when a game is a policy
+     */
+    public void evaluate(List<? extends Game> games) {
+        if (games.stream().anyMatch(game -> game instanceof PolicyGame)) {
+            throw new IllegalArgumentException("Policy games are played by the Evaluator");
+        }
+        if (memo != null) {
+            games = games.stream().filter(game -> {
+                Checkpoints found = memo.get(game);
+                if (found != null) {
+                    game.finish(found.getBoard(), found.getScore(), found.getMoviments());
+                }
+                return found == null;
+            }).collect(Collectors.toList());
+        }
+        List<? extends Game> batch = games;
+        int chunks = (games.size() + chunkSize - 1) / chunkSize;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * chunkSize;
+            int to = Math.min(batch.size(), from + chunkSize);
+            new Batch(batch.subList(from, to)).play();
+        });
+    }
+
+    /**
+     * Number of genes played
+     * @return
+     */
+    public long getSimulated() {
+        return simulated.sum();
+    }
+
+    /**
+     * The memo of evaluated genomes
+     * @return null when there is no memo
+     */
+    public FitnessMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * The memo of evaluated genomes, the hit rate is saved at the end of each generation
+     * @param memo null to evaluate all the games
+     */
+    public void setMemo(FitnessMemo memo) {
+        this.memo = memo;
+    }
+
+    /**
+     * A chunk of games as structure of arrays
+     */
+    private class Batch {
+
+        private final List<? extends Game> games;
+        private final BoardEngine engine;
+        private final long seed;
+        private final int size;
+        private final int bits;
+        private final int words;
+        private final int geneWords;
+        private final long[] boards;
+        private final int[] scores;
+        private final int[] moviments;
+        private final long[] genes;
+        private final int[] slots;
+        private final long[] alive;
+        private int live;
+
+        Batch(List<? extends Game> games) {
+            this.games = games;
+            Game first = games.get(0);
+            engine = first.getEngine();
+            seed = first.getSpawnSeed();
+            size = first.size();
+            bits = PackedGenes.bitsPerGene(first.getGeneration().getGeneLimit());
+            words = engine.words();
+            geneWords = PackedGenes.words(size, bits);
+            int n = games.size();
+            boards = new long[n * words];
+            scores = new int[n];
+            moviments = new int[n];
+            genes = new long[n * geneWords];
+            slots = new int[n];
+            alive = new long[(n + 63) >>> 6];
+            for (int k = 0; k < n; k++) {
+                Game game = games.get(k);
+                assert game.getEngine() == engine && game.getSpawnSeed() == seed && game.size() == size;
+                engine.start(boards, k * words, seed);
+                System.arraycopy(game.getPackedGenes(), 0, genes, k * geneWords, geneWords);
+                slots[k] = k;
+                alive[k >>> 6] |= 1L << k;
+            }
+            live = n;
+        }
+
+        void play() {
+            int genesPerWord = 64 / bits;
+            long geneMask = bits == 32 ? 0xFFFFFFFFL : (1L << bits) - 1;
+            int[] directions = new int[slots.length];
+            int[] gained = new int[slots.length];
+            long played = 0;
+            for (int g = 0; g < size && live > 0; g++) {
+                int word = g / genesPerWord;
+                int shift = (g % genesPerWord) * bits;
+                for (int k = 0; k < live; k++) {
+                    directions[k] = (int) ((genes[k * geneWords + word] >>> shift) & geneMask);
+                }
+                engine.moveAll(boards, live, directions, gained);
+                boolean dead = false;
+                for (int k = 0; k < live; k++) {
+                    int offset = k * words;
+                    if (gained[k] >= 0) {
+                        scores[k] += gained[k];
+                        moviments[k]++;
+                        engine.spawn(boards, offset, Spawn.hash(seed, engine.hash(boards, offset), moviments[k]));
+                    } else if (!engine.canMove(boards, offset)) {
+                        alive[k >>> 6] &= ~(1L << k);
+                        dead = true;
+                    }
+                }
+                played += live;
+                if (dead) {
+                    compact(g);
+                }
+            }
+            while (live > 0) {
+                remove(live - 1, size, false);
+            }
+            simulated.add(played);
+        }
+
+        /**
+         * Remove the dead slots from the last one, so the slot moved to its place is always alive
+         * @param end number of genes played by the dead games
+         */
+        private void compact(int end) {
+            for (int w = (live - 1) >>> 6; w >= 0; w--) {
+                int limit = Math.min(64, live - w * 64);
+                long dead = ~alive[w] & (limit == 64 ? -1L : (1L << limit) - 1);
+                while (dead != 0) {
+                    int bit = 63 - Long.numberOfLeadingZeros(dead);
+                    remove(w * 64 + bit, end, true);
+                    dead &= ~(1L << bit);
+                }
+            }
+        }
+
+        /**
+         * Finish the game of a slot and move the last live slot to its place
+         * @param k
+         * @param end number of genes played
+         * @param over if the game stopped because no swipe was possible
+         */
+        private void remove(int k, int end, boolean over) {
+            long[] board = new long[words];
+            System.arraycopy(boards, k * words, board, 0, words);
+            Game game = games.get(slots[k]);
+            game.finish(board, scores[k], moviments[k]);
+            if (memo != null) {
+                // Only the final state, the batch saves no checkpoints
+                Checkpoints checkpoints = new Checkpoints(game.getPackedGenes(), 0, 1, words);
+                checkpoints.finish(end, over, board, scores[k], moviments[k]);
+                memo.put(game, checkpoints);
+            }
+
+            int last = live - 1;
+            alive[last >>> 6] &= ~(1L << last);
+            if (k != last) {
+                alive[k >>> 6] |= 1L << k;
+                System.arraycopy(boards, last * words, boards, k * words, words);
+                System.arraycopy(genes, last * geneWords, genes, k * geneWords, geneWords);
+                scores[k] = scores[last];
+                moviments[k] = moviments[last];
+                slots[k] = slots[last];
+            }
+            live--;
+        }
+    }
+}
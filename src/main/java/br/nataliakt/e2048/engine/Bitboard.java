@@ -0,0 +1,135 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Static helpers for the 4x4 board packed in a long
+ * The cell (i, j) is the nibble 4 * i + j with the exponent of the number (0 is empty),
+ * so each row is 16 bits and the moviments are lookups of whole rows
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see BitboardEngine
+ */
+public final class Bitboard {
+
+    public static final int LEFT = BoardEngine.LEFT;
+    public static final int UP = BoardEngine.UP;
+    public static final int RIGHT = BoardEngine.RIGHT;
+    public static final int DOWN = BoardEngine.DOWN;
+
+    private static final long ROW_MASK = 0xFFFFL;
+    private static final long LOW_NIBBLES = 0x1111111111111111L;
+    private static final LineTable ROWS = LineTable.of(4);
+
+    private Bitboard() {
+    }
+
+    /**
+     * Swipe the board to a direction
+     * @param board
+     * @param direction LEFT, UP, RIGHT or DOWN
+     * @return the new board, equal to the old one if nothing moved
+     */
+    public static long move(long board, int direction) {
+        switch (direction) {
+            case LEFT:
+                return moveRows(board, false);
+            case RIGHT:
+                return moveRows(board, true);
+            case UP:
+                return transpose(moveRows(transpose(board), false));
+            case DOWN:
+                return transpose(moveRows(transpose(board), true));
+            default:
+                return board;
+        }
+    }
+
+    /**
+     * Score of the sums done by a swipe
+     * @param board
+     * @param direction LEFT, UP, RIGHT or DOWN
+     * @return
+     */
+    public static int score(long board, int direction) {
+        switch (direction) {
+            case LEFT:
+                return scoreRows(board, false);
+            case RIGHT:
+                return scoreRows(board, true);
+            case UP:
+                return scoreRows(transpose(board), false);
+            case DOWN:
+                return scoreRows(transpose(board), true);
+            default:
+                return 0;
+        }
+    }
+
+    private static long moveRows(long board, boolean reverse) {
+        long moved = 0;
+        for (int shift = 0; shift < 64; shift += 16) {
+            long line = (board >>> shift) & ROW_MASK;
+            moved |= (long) (reverse ? ROWS.right(line) : ROWS.left(line)) << shift;
+        }
+        return moved;
+    }
+
+    private static int scoreRows(long board, boolean reverse) {
+        int score = 0;
+        for (int shift = 0; shift < 64; shift += 16) {
+            long line = (board >>> shift) & ROW_MASK;
+            score += reverse ? ROWS.scoreRight(line) : ROWS.scoreLeft(line);
+        }
+        return score;
+    }
+
+    /**
+     * Swap rows and columns
+     * @param board
+     * @return
+     */
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    /**
+     * Number of empty cells
+     * @param board
+     * @return
+     */
+    public static int countSpaces(long board) {
+        long x = board | (board >>> 1);
+        x |= x >>> 2;
+        return Long.bitCount(~x & LOW_NIBBLES);
+    }
+
+    /**
+     * Exponent in a cell
+     * @param board
+     * @param i
+     * @param j
+     * @return
+     */
+    public static int get(long board, int i, int j) {
+        return (int) ((board >>> (4 * (4 * i + j))) & 0xF);
+    }
+
+    /**
+     * Biggest exponent in the board
+     * @param board
+     * @return
+     */
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int cell = 0; cell < 16; cell++) {
+            max = Math.max(max, (int) ((board >>> (4 * cell)) & 0xF));
+        }
+        return max;
+    }
+}
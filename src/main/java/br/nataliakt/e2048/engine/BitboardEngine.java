@@ -0,0 +1,153 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Engine for boards up to 4x4 packed in one long
+ * The cell (i, j) is the nibble 4 * i + j, the unused cells of smaller boards are always empty
+ * Rows are swiped by lookups and columns by the same lookups over the transposed board
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see Bitboard
+ */
+public class BitboardEngine extends BoardEngine {
+
+    private static final long LOW_NIBBLES = 0x1111111111111111L;
+
+    private final LineTable rows;
+    private final LineTable columns;
+    private final int unused;
+
+    /**
+     * Constructor with the board dimensions
+     * @param width up to 4
+     * @param height up to 4
+     */
+    public BitboardEngine(int width, int height) {
+        super(width, height);
+        assert width <= 4 && height <= 4;
+        rows = LineTable.of(width);
+        columns = LineTable.of(height);
+        unused = 16 - width * height;
+    }
+
+    @Override
+    public int words() {
+        return 1;
+    }
+
+    @Override
+    public int move(long[] boards, int offset, int direction) {
+        long board = boards[offset];
+        long moved;
+        int score;
+        switch (direction) {
+            case LEFT:
+                moved = 0;
+                score = 0;
+                for (int i = 0; i < height; i++) {
+                    long line = (board >>> (16 * i)) & 0xFFFF;
+                    moved |= (long) rows.left(line) << (16 * i);
+                    score += rows.scoreLeft(line);
+                }
+                break;
+            case RIGHT:
+                moved = 0;
+                score = 0;
+                for (int i = 0; i < height; i++) {
+                    long line = (board >>> (16 * i)) & 0xFFFF;
+                    moved |= (long) rows.right(line) << (16 * i);
+                    score += rows.scoreRight(line);
+                }
+                break;
+            case UP:
+                moved = 0;
+                score = 0;
+                long transposed = Bitboard.transpose(board);
+                for (int j = 0; j < width; j++) {
+                    long line = (transposed >>> (16 * j)) & 0xFFFF;
+                    moved |= (long) columns.left(line) << (16 * j);
+                    score += columns.scoreLeft(line);
+                }
+                moved = Bitboard.transpose(moved);
+                break;
+            case DOWN:
+                moved = 0;
+                score = 0;
+                transposed = Bitboard.transpose(board);
+                for (int j = 0; j < width; j++) {
+                    long line = (transposed >>> (16 * j)) & 0xFFFF;
+                    moved |= (long) columns.right(line) << (16 * j);
+                    score += columns.scoreRight(line);
+                }
+                moved = Bitboard.transpose(moved);
+                break;
+            default:
+                return -1;
+        }
+        if (moved == board) {
+            return -1;
+        }
+        boards[offset] = moved;
+        return score;
+    }
+
+    @Override
+    public int get(long[] boards, int offset, int i, int j) {
+        return Bitboard.get(boards[offset], i, j);
+    }
+
+    @Override
+    public void set(long[] boards, int offset, int i, int j, int exponent) {
+        int shift = 4 * (4 * i + j);
+        boards[offset] = (boards[offset] & ~(0xFL << shift)) | (long) exponent << shift;
+    }
+
+    @Override
+    public long hash(long[] boards, int offset) {
+        return boards[offset];
+    }
+
+    @Override
+    public void lines(long[] boards, int offset, long[] lines) {
+        long board = boards[offset];
+        for (int i = 0; i < height; i++) {
+            lines[i] = (board >>> (16 * i)) & 0xFFFF;
+        }
+        long transposed = Bitboard.transpose(board);
+        for (int j = 0; j < width; j++) {
+            lines[height + j] = (transposed >>> (16 * j)) & 0xFFFF;
+        }
+    }
+
+    @Override
+    public int countSpaces(long[] boards, int offset) {
+        long board = boards[offset];
+        long x = board | (board >>> 1);
+        x |= x >>> 2;
+        return Long.bitCount(~x & LOW_NIBBLES) - unused;
+    }
+
+    @Override
+    public boolean canMove(long[] boards, int offset) {
+        long board = boards[offset];
+        if (countSpaces(boards, offset) > 0) {
+            return true;
+        }
+        // Full board: a swipe moves only if two neighbours are equal
+        boolean rowsMove = false;
+        for (int i = 0; i < height && !rowsMove; i++) {
+            long line = (board >>> (16 * i)) & 0xFFFF;
+            rowsMove = rows.left(line) != line;
+        }
+        if (rowsMove) {
+            return true;
+        }
+        long transposed = Bitboard.transpose(board);
+        for (int j = 0; j < width; j++) {
+            long line = (transposed >>> (16 * j)) & 0xFFFF;
+            if (columns.left(line) != line) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,310 @@
+package br.nataliakt.e2048.engine;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rules of the game over packed boards of any size
+ * A board is a group of longs inside an array, so many boards can live in the same array
+ * Each cell keeps the exponent of its number in a nibble, 0 is empty
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public abstract class BoardEngine {
+
+    public static final int LEFT = 0;
+    public static final int UP = 1;
+    public static final int RIGHT = 2;
+    public static final int DOWN = 3;
+
+    private static final Map<Integer, BoardEngine> ENGINES = new ConcurrentHashMap<>();
+
+    protected final int width;
+    protected final int height;
+
+    /**
+     * Constructor with the board dimensions
+     * @param width
+     * @param height
+     */
+    protected BoardEngine(int width, int height) {
+        assert width > 0 && width <= 16;
+        assert height > 0 && height <= 16;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * The fastest engine of a board size
+     * A bitboard up to 4x4 and packed rows for bigger boards, or the vector engine when the JVM
+     * supports it and it is faster. The property e2048.engine (scalar or vector) forces a choice
+     * @param width
+     * @param height
+     * @return
+     */
+    public static BoardEngine of(int width, int height) {
+        return ENGINES.computeIfAbsent(width << 8 | height, key -> {
+            BoardEngine scalar = scalar(width, height);
+            BoardEngine vector = VectorEngines.of(width, height);
+            if (vector == null) {
+                return scalar;
+            }
+            String engine = System.getProperty("e2048.engine", "");
+            if (engine.equals("scalar")) {
+                return scalar;
+            }
+            if (engine.equals("vector")) {
+                return vector;
+            }
+            return benchmark(vector) < benchmark(scalar) ? vector : scalar;
+        });
+    }
+
+    /**
+     * The engine of a board size without vector instructions
+     * @param width
+     * @param height
+     * @return
+     */
+    public static BoardEngine scalar(int width, int height) {
+        if (width <= 4 && height <= 4) {
+            return new BitboardEngine(width, height);
+        }
+        return new RowBoardEngine(width, height);
+    }
+
+    /**
+     * Best time of some rounds swiping a batch of random boards
+     * @param engine
+     * @return nanoseconds
+     */
+    private static long benchmark(BoardEngine engine) {
+        int count = 4096;
+        int words = engine.words();
+        long[] boards = new long[count * words];
+        int[] directions = new int[count];
+        int[] scores = new int[count];
+        Random random = new Random(count);
+        for (int k = 0; k < count; k++) {
+            engine.start(boards, k * words, random.nextLong());
+            for (int m = 0; m < 16; m++) {
+                engine.play(boards, k * words, random.nextInt(4), k, m);
+            }
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 12; round++) {
+            for (int k = 0; k < count; k++) {
+                directions[k] = random.nextInt(4);
+            }
+            long start = System.nanoTime();
+            for (int repeat = 0; repeat < 8; repeat++) {
+                engine.moveAll(boards, count, directions, scores);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Number of longs of a board
+     * @return
+     */
+    public abstract int words();
+
+    /**
+     * Swipe a board to a direction
+     * @param boards
+     * @param offset first long of the board
+     * @param direction LEFT, UP, RIGHT or DOWN
+     * @return the score of the sums, or -1 if nothing moved
+     */
+    public abstract int move(long[] boards, int offset, int direction);
+
+    /**
+     * Swipe many contiguous boards, each one to its own direction
+     * @param boards
+     * @param count number of boards from the start of the array
+     * @param directions direction of each board
+     * @param scores receives the score of each board, or -1 if nothing moved
+     */
+    public void moveAll(long[] boards, int count, int[] directions, int[] scores) {
+        int words = words();
+        for (int k = 0; k < count; k++) {
+            scores[k] = move(boards, k * words, directions[k]);
+        }
+    }
+
+    /**
+     * Exponent in a cell
+     * @param boards
+     * @param offset first long of the board
+     * @param i row
+     * @param j column
+     * @return
+     */
+    public abstract int get(long[] boards, int offset, int i, int j);
+
+    /**
+     * Change the exponent in a cell
+     * @param boards
+     * @param offset first long of the board
+     * @param i row
+     * @param j column
+     * @param exponent
+     */
+    public abstract void set(long[] boards, int offset, int i, int j, int exponent);
+
+    /**
+     * Hash of the board used by the spawn
+     * @param boards
+     * @param offset first long of the board
+     * @return
+     * @see Spawn
+     */
+    public abstract long hash(long[] boards, int offset);
+
+    /**
+     * Cells of the rows and the columns packed in nibbles, the first cell in the lowest nibble
+     * @param boards
+     * @param offset first long of the board
+     * @param lines receives the height rows followed by the width columns
+     */
+    public void lines(long[] boards, int offset, long[] lines) {
+        for (int i = 0; i < height; i++) {
+            long row = 0;
+            for (int j = 0; j < width; j++) {
+                row |= (long) get(boards, offset, i, j) << (4 * j);
+            }
+            lines[i] = row;
+        }
+        for (int j = 0; j < width; j++) {
+            long column = 0;
+            for (int i = 0; i < height; i++) {
+                column |= (long) get(boards, offset, i, j) << (4 * i);
+            }
+            lines[height + j] = column;
+        }
+    }
+
+    /**
+     * Number of empty cells
+     * @param boards
+     * @param offset first long of the board
+     * @return
+     */
+    public int countSpaces(long[] boards, int offset) {
+        int count = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (get(boards, offset, i, j) == 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * If any swipe changes the board: an empty cell or two equal neighbours
+     * @param boards
+     * @param offset first long of the board
+     * @return
+     */
+    public boolean canMove(long[] boards, int offset) {
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                int cell = get(boards, offset, i, j);
+                if (cell == 0) {
+                    return true;
+                }
+                if (cell < 15 && ((j + 1 < width && get(boards, offset, i, j + 1) == cell)
+                        || (i + 1 < height && get(boards, offset, i + 1, j) == cell))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Put a new number in a free cell chosen by a spawn hash, free cells counted by row
+     * @param boards
+     * @param offset first long of the board
+     * @param hash
+     * @see Spawn
+     */
+    public void spawn(long[] boards, int offset, long hash) {
+        int spaces = countSpaces(boards, offset);
+        if (spaces == 0) {
+            return;
+        }
+        int position = Spawn.position(hash, spaces);
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (get(boards, offset, i, j) != 0) {
+                    continue;
+                }
+                if (position == 0) {
+                    set(boards, offset, i, j, Spawn.exponent(hash));
+                    return;
+                }
+                position--;
+            }
+        }
+    }
+
+    /**
+     * Put the first number of a game in an empty board
+     * @param boards
+     * @param offset first long of the board
+     * @param seed seed of the run
+     */
+    public void start(long[] boards, int offset, long seed) {
+        for (int w = 0; w < words(); w++) {
+            boards[offset + w] = 0;
+        }
+        spawn(boards, offset, Spawn.hash(seed, hash(boards, offset), 0));
+    }
+
+    /**
+     * Swipe a board and put the new number when something moved
+     * @param boards
+     * @param offset first long of the board
+     * @param direction LEFT, UP, RIGHT or DOWN
+     * @param seed seed of the run
+     * @param moviments number of moviments before the swipe
+     * @return the score of the sums, or -1 if nothing moved
+     */
+    public int play(long[] boards, int offset, int direction, long seed, int moviments) {
+        int score = move(boards, offset, direction);
+        if (score >= 0) {
+            spawn(boards, offset, Spawn.hash(seed, hash(boards, offset), moviments + 1));
+        }
+        return score;
+    }
+
+    /**
+     * Biggest exponent in the board
+     * @param boards
+     * @param offset first long of the board
+     * @return
+     */
+    public int maxExponent(long[] boards, int offset) {
+        int max = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                max = Math.max(max, get(boards, offset, i, j));
+            }
+        }
+        return max;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,208 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs generations inside a wall-clock budget
+ * The cost of a gene is measured after each generation, and the size of the next one is chosen
+ * so it takes about the target time and does not pass the deadline. When the budget runs out
+ * the best game of the run is saved as a replay
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class BudgetScheduler {
+
+    public static final double SMOOTHING = 0.3; // Weight of the last generation in the cost
+    public static final int MAX_GROWTH = 2; // The size changes at most by this factor
+
+    private final Evaluator evaluator;
+    private final long generationNanos;
+    private final long budgetNanos;
+    private final int minSize;
+    private final int maxSize;
+    private Path checkpoint;
+    private long deadline;
+    private double nanosPerGene = Double.NaN;
+    private double genesPerSecond;
+    private double gamesPerSecond;
+    private long generations;
+    private Replay best;
+    private int bestFitness = -1;
+    private volatile boolean stopped;
+
+    /**
+     * Constructor with the times and the limits of the population
+     * @param evaluator
+     * @param generationMillis target time of a generation
+     * @param budgetMillis time of the whole run
+     * @param minSize smallest population
+     * @param maxSize biggest population
+     */
+    public BudgetScheduler(Evaluator evaluator, long generationMillis, long budgetMillis, int minSize, int maxSize) {
+        assert generationMillis > 0 && budgetMillis > 0 && minSize > 0 && minSize <= maxSize;
+        this.evaluator = evaluator;
+        generationNanos = TimeUnit.MILLISECONDS.toNanos(generationMillis);
+        budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Evolve until the budget runs out or it is stopped
+     * @param first the first generation, its size is the starting guess
+     * @return the last evaluated generation
+     */
+    public Generation<Game> run(Generation<Game> first) {
+        stopped = false;
+        deadline = System.nanoTime() + budgetNanos;
+        Generation<Game> generation = first;
+        long start = System.nanoTime();
+        while (true) {
+            long simulated = evaluator.getSimulated();
+            evaluator.evaluate(generation);
+            keepBest(generation);
+            // The whole iteration is measured, with the breeding of the generation before the games
+            measure(generation, System.nanoTime() - start, evaluator.getSimulated() - simulated);
+            int size = plan(generation.size(), chromosomeSize(generation));
+            if (stopped || size == 0) {
+                break;
+            }
+            start = System.nanoTime();
+            generation = generation.nextGeneration(generation.getChromosomeClass(), size);
+        }
+        saveCheckpoint();
+        return generation;
+    }
+
+    /**
+     * Size of the next generation: the target time, or the time left, divided by the cost of a game
+     * @param size size of the last generation
+     * @param chromosomeSize
+     * @return 0 when not even the smallest generation fits in the time left
+     */
+    public int plan(int size, int chromosomeSize) {
+        long remaining = getRemainingNanos();
+        if (Double.isNaN(nanosPerGene)) {
+            return remaining > 0 ? Math.max(minSize, Math.min(maxSize, size)) : 0;
+        }
+        if (predict(minSize, chromosomeSize) > remaining) {
+            return 0;
+        }
+        double perGame = Math.max(1, nanosPerGene * chromosomeSize);
+        long fitting = (long) (Math.min(generationNanos, remaining) / perGame);
+        long next = Math.max(size / MAX_GROWTH, Math.min((long) size * MAX_GROWTH, fitting));
+        return (int) Math.max(minSize, Math.min(maxSize, next));
+    }
+
+    /**
+     * Predicted time of a generation
+     * @param size
+     * @param chromosomeSize
+     * @return nanoseconds, 0 before the first measure
+     */
+    public long predict(int size, int chromosomeSize) {
+        return Double.isNaN(nanosPerGene) ? 0 : (long) (nanosPerGene * size * chromosomeSize);
+    }
+
+    private void measure(Generation<Game> generation, long nanos, long simulated) {
+        generations++;
+        long genes = (long) generation.size() * chromosomeSize(generation);
+        if (genes == 0 || nanos <= 0) {
+            return;
+        }
+        // The cost is by gene of the generation, so the breeding, the elites and the memo hits are in it
+        double cost = nanos / (double) genes;
+        nanosPerGene = Double.isNaN(nanosPerGene) ? cost : SMOOTHING * cost + (1 - SMOOTHING) * nanosPerGene;
+        genesPerSecond = simulated * 1e9 / nanos;
+        gamesPerSecond = generation.size() * 1e9 / nanos;
+    }
+
+    private void keepBest(Generation<Game> generation) {
+        generation.getChromosomeList().forEach(game -> {
+            if (game.getFitness() > bestFitness) {
+                bestFitness = game.getFitness();
+                best = Replay.record(game);
+            }
+        });
+    }
+
+    private void saveCheckpoint() {
+        if (checkpoint == null || best == null) {
+            return;
+        }
+        try {
+            Files.write(checkpoint, best.toBytes());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int chromosomeSize(Generation<Game> generation) {
+        return generation.size() == 0 ? 0 : generation.get(0).size();
+    }
+
+    /**
+     * Stop after the generation being evaluated
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Time left in the budget
+     * @return nanoseconds, negative after the deadline
+     */
+    public long getRemainingNanos() {
+        return deadline - System.nanoTime();
+    }
+
+    /**
+     * Smoothed cost of a gene
+     * @return nanoseconds, NaN before the first generation
+     */
+    public double getNanosPerGene() {
+        return nanosPerGene;
+    }
+
+    /**
+     * Moviments played by second in the last generation
+     * @return
+     */
+    public double getGenesPerSecond() {
+        return genesPerSecond;
+    }
+
+    /**
+     * Games evaluated by second in the last generation
+     * @return
+     */
+    public double getGamesPerSecond() {
+        return gamesPerSecond;
+    }
+
+    public long getGenerations() {
+        return generations;
+    }
+
+    /**
+     * Best game of the run
+     * @return null before the first generation
+     */
+    public Replay getBest() {
+        return best;
+    }
+
+    /**
+     * File where the best game is saved at the end of the run
+     * @param checkpoint null to keep it only in memory
+     */
+    public void setCheckpoint(Path checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+}
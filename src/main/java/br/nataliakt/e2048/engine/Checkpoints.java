@@ -0,0 +1,136 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Sparse states of an evaluated game, saved before each interval of genes
+ * A game with the same first genes can continue from the last shared checkpoint
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class Checkpoints {
+
+    private final long[] genes;
+    private final int interval;
+    private final int words;
+    private final long[] boards;
+    private final int[] scores;
+    private final int[] moviments;
+    private int count;
+    private int end;
+    private boolean over;
+    private final long[] board;
+    private int score;
+    private int moviment;
+
+    /**
+     * Constructor with the packed genes of the game
+     * @param genes
+     * @param size number of genes
+     * @param interval genes between two checkpoints
+     * @param words longs of a board
+     */
+    public Checkpoints(long[] genes, int size, int interval, int words) {
+        this.genes = genes;
+        this.interval = interval;
+        this.words = words;
+        int capacity = size / interval + 1;
+        boards = new long[capacity * words];
+        board = new long[words];
+        scores = new int[capacity];
+        moviments = new int[capacity];
+        count = 0;
+    }
+
+    /**
+     * Save the state before the gene count * interval
+     * @param board
+     * @param score
+     * @param moviment
+     */
+    void save(long[] board, int score, int moviment) {
+        System.arraycopy(board, 0, boards, count * words, words);
+        scores[count] = score;
+        moviments[count] = moviment;
+        count++;
+    }
+
+    /**
+     * Save the final state
+     * @param end number of genes played
+     * @param over if the game stopped because no swipe was possible
+     * @param board
+     * @param score
+     * @param moviment
+     */
+    void finish(int end, boolean over, long[] board, int score, int moviment) {
+        this.end = end;
+        this.over = over;
+        System.arraycopy(board, 0, this.board, 0, words);
+        this.score = score;
+        this.moviment = moviment;
+    }
+
+    public long[] getGenes() {
+        return genes;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Copy the board of a checkpoint
+     * @param checkpoint
+     * @param board destination with the longs of a board
+     */
+    public void getBoard(int checkpoint, long[] board) {
+        System.arraycopy(boards, checkpoint * words, board, 0, words);
+    }
+
+    public int getScore(int checkpoint) {
+        return scores[checkpoint];
+    }
+
+    public int getMoviments(int checkpoint) {
+        return moviments[checkpoint];
+    }
+
+    /**
+     * Number of genes played
+     * @return
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * If the game stopped before the last gene because no swipe was possible
+     * @return
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * The final board, it must not be changed
+     * @return
+     */
+    public long[] getBoard() {
+        return board;
+    }
+
+    public int getWords() {
+        return words;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMoviments() {
+        return moviment;
+    }
+}
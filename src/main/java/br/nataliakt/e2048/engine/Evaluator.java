@@ -0,0 +1,220 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.ga.PackedGenes;
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.PolicyGame;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays the games without the screen over packed boards
+ * The checkpoints of the last evaluated generation are kept, so a child continues
+ * from the last checkpoint shared with the parent that gave its first genes
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class Evaluator implements GenerationEvaluator {
+
+    public static final int CHECKPOINT_INTERVAL = 32;
+
+    private final int interval;
+    private volatile Map<Long, Checkpoints> parents;
+    private final LongAdder simulated;
+    private final LongAdder skipped;
+    private FitnessMemo memo;
+
+    /**
+     * Constructor with the default checkpoint interval
+     */
+    public Evaluator() {
+        this(CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Constructor with the checkpoint interval
+     * @param interval genes between two checkpoints
+     */
+    public Evaluator(int interval) {
+        assert interval > 0;
+        this.interval = interval;
+        parents = new ConcurrentHashMap<>();
+        simulated = new LongAdder();
+        skipped = new LongAdder();
+    }
+
+    /**
+     * Evaluate in parallel the games of a generation that are still running
+     * The games carried over keep their checkpoints for the next generation
+     * @param generation
+     */
+    @Override
+    public void evaluate(Generation<? extends Game> generation) {
+        Map<Long, Checkpoints> previous = parents;
+        Map<Long, Checkpoints> current = new ConcurrentHashMap<>();
+        generation.getChromosomeList().parallel().forEach(game -> {
+            Checkpoints checkpoints = game.isRunning() ? evaluate(game, previous) : previous.get(game.getId());
+            if (checkpoints != null) {
+                current.put(game.getId(), checkpoints);
+            }
+        });
+        parents = current;
+        if (memo != null) {
+            memo.advance();
+        }
+    }
+
+    /**
+     * Evaluate a game from the start, or from the checkpoints of its parent when they are known
+     * @param game
+     * @return
+     */
+    public Checkpoints evaluate(Game game) {
+        return evaluate(game, parents);
+    }
+
+    private Checkpoints evaluate(Game game, Map<Long, Checkpoints> known) {
+        BoardEngine engine = game.getEngine();
+        int size = game.size();
+        int bits = PackedGenes.bitsPerGene(game.getGeneration().getGeneLimit());
+        long[] genes = game.getPackedGenes();
+        long seed = game.getSpawnSeed();
+        if (memo != null) {
+            Checkpoints found = memo.get(game);
+            if (found != null) {
+                skipped.add(size);
+                game.finish(found.getBoard(), found.getScore(), found.getMoviments());
+                return found;
+            }
+        }
+        if (game instanceof PolicyGame) {
+            return evaluate((PolicyGame) game, engine, genes, bits);
+        }
+        Checkpoints checkpoints = new Checkpoints(genes, size, interval, engine.words());
+        Checkpoints parent = known.get(game.getOrigin());
+        if (parent != null && parent.getWords() != engine.words()) {
+            parent = null;
+        }
+
+        long[] board = new long[engine.words()];
+        engine.start(board, 0, seed);
+        int score = 0;
+        int moviments = 0;
+        int start = 0;
+        int prefix = parent == null ? 0 : PackedGenes.commonPrefix(genes, parent.getGenes(), size, bits);
+        if (parent != null && parent.getEnd() <= prefix) {
+            // The parent played all its genes (or got stuck) inside the shared prefix
+            skipped.add(size);
+            game.finish(parent.getBoard(), parent.getScore(), parent.getMoviments());
+            remember(game, parent);
+            return parent;
+        }
+        if (parent != null && parent.getInterval() == interval && parent.getCount() > 0) {
+            int last = Math.min(prefix / interval, parent.getCount() - 1);
+            for (int c = 0; c <= last; c++) {
+                parent.getBoard(c, board);
+                checkpoints.save(board, parent.getScore(c), parent.getMoviments(c));
+            }
+            start = last * interval;
+            score = parent.getScore(last);
+            moviments = parent.getMoviments(last);
+            skipped.add(start);
+        }
+
+        int i = start;
+        boolean over = false;
+        for (; i < size; i++) {
+            if (i % interval == 0 && i / interval == checkpoints.getCount()) {
+                checkpoints.save(board, score, moviments);
+            }
+            int gained = engine.play(board, 0, PackedGenes.get(genes, i, bits), seed, moviments);
+            if (gained < 0) {
+                if (!engine.canMove(board, 0)) {
+                    over = true;
+                    break;
+                }
+                continue;
+            }
+            score += gained;
+            moviments++;
+        }
+        simulated.add(i - start);
+        checkpoints.finish(i, over, board, score, moviments);
+        game.finish(board, score, moviments);
+        remember(game, checkpoints);
+        return checkpoints;
+    }
+
+    /**
+     * Play a policy until it is stuck, there are no checkpoints because no prefix is shared
+     * @param game
+     * @param engine
+     * @param genes
+     * @param bits
+     * @return
+     */
+    private Checkpoints evaluate(PolicyGame game, BoardEngine engine, long[] genes, int bits) {
+        long seed = game.getSpawnSeed();
+        int tableBits = game.getTableBits();
+        long[] board = new long[engine.words()];
+        engine.start(board, 0, seed);
+        int score = 0;
+        int moviments = 0;
+        boolean over = false;
+        while (moviments < Policy.MOVIMENTS_LIMIT) {
+            int played = Policy.play(engine, board, 0, genes, bits, tableBits, seed, moviments);
+            if (played < 0) {
+                over = true;
+                break;
+            }
+            score += played >>> 2;
+            moviments++;
+        }
+        simulated.add(moviments);
+        Checkpoints checkpoints = new Checkpoints(genes, 0, interval, engine.words());
+        checkpoints.finish(game.size(), over, board, score, moviments);
+        game.finish(board, score, moviments);
+        remember(game, checkpoints);
+        return checkpoints;
+    }
+
+    private void remember(Game game, Checkpoints checkpoints) {
+        if (memo != null) {
+            memo.put(game, checkpoints);
+        }
+    }
+
+    /**
+     * The memo of evaluated genomes
+     * @return null when there is no memo
+     */
+    public FitnessMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * The memo of evaluated genomes, the hit rate is saved at the end of each generation
+     * @param memo null to evaluate all the games
+     */
+    public void setMemo(FitnessMemo memo) {
+        this.memo = memo;
+    }
+
+    /**
+     * Number of genes played
+     * @return
+     */
+    public long getSimulated() {
+        return simulated.sum();
+    }
+
+    /**
+     * Number of genes not played because they were shared with a parent
+     * @return
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+}
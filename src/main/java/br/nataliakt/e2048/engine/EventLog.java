@@ -0,0 +1,72 @@
+package br.nataliakt.e2048.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Subscriber that appends each generation event as a line of a file
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class EventLog implements EventPublisher.Subscriber<GenerationEvent> {
+
+    private final Path path;
+    private BufferedWriter writer;
+    private EventPublisher.Subscription subscription;
+
+    /**
+     * Constructor with the file, created when the subscription starts
+     * @param path
+     */
+    public EventLog(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void onSubscribe(EventPublisher.Subscription subscription) {
+        this.subscription = subscription;
+        try {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            e.printStackTrace();
+            subscription.cancel();
+            return;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(GenerationEvent item) {
+        try {
+            writer.write(item.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        throwable.printStackTrace();
+        onComplete();
+    }
+
+    @Override
+    public void onComplete() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
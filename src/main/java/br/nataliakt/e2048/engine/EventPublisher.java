@@ -0,0 +1,346 @@
+package br.nataliakt.e2048.engine;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publisher of events with the same contract of java.util.concurrent.Flow, that is not in Java 8
+ * Each subscriber has a bounded buffer and is called by its own task in the executor, so a slow
+ * subscriber never blocks the publisher: when its buffer is full the oldest event is dropped,
+ * or only the latest event is kept
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class EventPublisher<T> implements AutoCloseable {
+
+    public static final int BUFFER = 256;
+
+    /**
+     * What a buffer does with a new event
+     */
+    public enum Overflow {
+        /**
+         * Keep the last events, dropping the oldest when the buffer is full
+         */
+        DROP_OLDEST,
+        /**
+         * Keep only the newest event, for a subscriber that shows the current state
+         */
+        LATEST
+    }
+
+    /**
+     * Receiver of the events, called by one thread at a time
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * First call, before any event
+         * @param subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * An event requested by the subscription
+         * @param item
+         */
+        void onNext(T item);
+
+        /**
+         * Last call when the publisher or the subscriber failed
+         * @param throwable
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Last call when the publisher is closed, after all the buffered events
+         */
+        void onComplete();
+    }
+
+    /**
+     * Link between the publisher and a subscriber
+     */
+    public interface Subscription {
+
+        /**
+         * Ask for more events
+         * @param n number of events, Long.MAX_VALUE for all of them
+         */
+        void request(long n);
+
+        /**
+         * Stop receiving events
+         */
+        void cancel();
+    }
+
+    private final Executor executor;
+    private final List<BufferedSubscription> subscriptions;
+    private volatile boolean closed;
+
+    /**
+     * Constructor with daemon threads for the subscribers
+     */
+    public EventPublisher() {
+        this(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "event-publisher");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructor with the executor that calls the subscribers
+     * @param executor
+     */
+    public EventPublisher(Executor executor) {
+        this.executor = executor;
+        subscriptions = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Subscribe with a buffer of the default size that drops the oldest events
+     * @param subscriber
+     */
+    public void subscribe(Subscriber<? super T> subscriber) {
+        subscribe(subscriber, BUFFER, Overflow.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribe with a bounded buffer
+     * @param subscriber
+     * @param capacity events kept while the subscriber is busy
+     * @param overflow
+     * @return the subscription, to see the dropped events
+     */
+    public BufferedSubscription subscribe(Subscriber<? super T> subscriber, int capacity, Overflow overflow) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        BufferedSubscription subscription = new BufferedSubscription(subscriber, capacity, overflow);
+        // Same lock as finish, so a subscription is either completed by it or completed here
+        synchronized (subscriptions) {
+            if (closed) {
+                subscription.complete(null);
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        subscription.signal();
+        return subscription;
+    }
+
+    /**
+     * Send an event to all the subscribers, without waiting for them
+     * @param item
+     * @return number of subscribers that received it in the buffer
+     */
+    public int publish(T item) {
+        if (item == null) {
+            throw new NullPointerException("Null event");
+        }
+        if (closed) {
+            throw new IllegalStateException("Publisher closed");
+        }
+        int count = 0;
+        for (BufferedSubscription subscription : subscriptions) {
+            if (subscription.offer(item)) {
+                count++;
+            } else {
+                subscriptions.remove(subscription);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of subscribers that did not cancel
+     * @return
+     */
+    public int getSubscriberCount() {
+        subscriptions.removeIf(BufferedSubscription::isCancelled);
+        return subscriptions.size();
+    }
+
+    /**
+     * Complete the subscribers after their buffered events
+     */
+    @Override
+    public void close() {
+        finish(null);
+    }
+
+    /**
+     * Fail the subscribers after their buffered events
+     * @param throwable
+     */
+    public void closeExceptionally(Throwable throwable) {
+        finish(throwable);
+    }
+
+    private void finish(Throwable throwable) {
+        synchronized (subscriptions) {
+            closed = true;
+            for (BufferedSubscription subscription : subscriptions) {
+                subscription.complete(throwable);
+                subscription.signal();
+            }
+            subscriptions.clear();
+        }
+    }
+
+    /**
+     * Buffer of a subscriber, drained by a single task at a time
+     */
+    public final class BufferedSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        private final int capacity;
+        private final Overflow overflow;
+        private final ArrayDeque<T> buffer;
+        private final AtomicInteger work;
+        private long demand;
+        private long dropped;
+        private boolean subscribed;
+        private boolean done;
+        private Throwable error;
+        private volatile boolean cancelled;
+
+        BufferedSubscription(Subscriber<? super T> subscriber, int capacity, Overflow overflow) {
+            this.subscriber = subscriber;
+            this.capacity = overflow == Overflow.LATEST ? 1 : capacity;
+            this.overflow = overflow;
+            buffer = new ArrayDeque<>(Math.min(this.capacity, BUFFER));
+            work = new AtomicInteger();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    error = new IllegalArgumentException("Non positive request: " + n);
+                    done = true;
+                    buffer.clear();
+                } else {
+                    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                }
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            synchronized (this) {
+                buffer.clear();
+            }
+        }
+
+        /**
+         * Events lost because the buffer was full
+         * @return
+         */
+        public synchronized long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Events waiting for the subscriber
+         * @return
+         */
+        public synchronized int getBuffered() {
+            return buffer.size();
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        boolean offer(T item) {
+            if (cancelled) {
+                return false;
+            }
+            synchronized (this) {
+                if (done) {
+                    return true;
+                }
+                if (buffer.size() == capacity) {
+                    buffer.pollFirst();
+                    dropped++;
+                }
+                buffer.addLast(item);
+            }
+            signal();
+            return true;
+        }
+
+        synchronized void complete(Throwable throwable) {
+            if (!done) {
+                done = true;
+                error = throwable;
+            }
+        }
+
+        void signal() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = work.get();
+            while (true) {
+                if (!subscribed) {
+                    subscribed = true;
+                    try {
+                        subscriber.onSubscribe(this);
+                    } catch (Throwable e) {
+                        cancelled = true;
+                    }
+                }
+                while (!cancelled) {
+                    T item = null;
+                    boolean last = false;
+                    synchronized (this) {
+                        if (demand > 0 && !buffer.isEmpty()) {
+                            item = buffer.pollFirst();
+                            if (demand != Long.MAX_VALUE) {
+                                demand--;
+                            }
+                        } else if (done && buffer.isEmpty()) {
+                            // A bad request clears the buffer, so its error is not delayed
+                            last = true;
+                        }
+                    }
+                    if (last) {
+                        cancelled = true;
+                        if (error == null) {
+                            subscriber.onComplete();
+                        } else {
+                            subscriber.onError(error);
+                        }
+                        break;
+                    }
+                    if (item == null) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(item);
+                    } catch (Throwable e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                    }
+                }
+                missed = work.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package br.nataliakt.e2048.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expectimax player over the packed board, a reference for the evolved games
+ * The swipes are max nodes and the new numbers are chance nodes, with the chances of Spawn.
+ * The search stops at a depth limit or when the chance of the path is too small, and the
+ * boards already seen are kept in a lossy table shared by the threads. At the root each new
+ * number after each swipe is a fork-join task
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see Spawn
+ */
+public class Expectimax {
+
+    public static final int DEPTH = 3;
+    public static final double MIN_PROBABILITY = 0.0001;
+    public static final int TABLE_BITS = 20;
+    public static final double FOUR = 0.5; // Chance of a 4, Spawn.exponent gives 2 and 4 alike
+    public static final double LOST = 200000; // Penalty of a board that can not move
+    /** Weights of the score, empty cells, monotonicity, smoothness, corner and merges */
+    public static final double[] WEIGHTS = {1, 270, -47, -11, 20, 70};
+
+    private final BoardEngine engine;
+    private final int depth;
+    private final double minProbability;
+    private final double[] weights;
+    private final ForkJoinPool pool;
+    private final int words;
+    private final long[] table; // Pairs of key ^ data and data, a torn pair does not match its key
+    private final int mask;
+    private final LongAdder nodes;
+    private final ThreadLocal<long[][]> scratch;
+    private final ThreadLocal<int[]> features;
+
+    /**
+     * Constructor with the default depth, pruning and heuristic in the common pool
+     * @param engine
+     */
+    public Expectimax(BoardEngine engine) {
+        this(engine, DEPTH, MIN_PROBABILITY, new Heuristic(WEIGHTS), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with the search limits
+     * @param engine
+     * @param depth swipes looked ahead
+     * @param minProbability paths less likely than this are evaluated by the heuristic
+     * @param heuristic value of the boards at the leaves, its score weight multiplies the sums
+     * @param pool threads of the root tasks
+     */
+    public Expectimax(BoardEngine engine, int depth, double minProbability, Heuristic heuristic, ForkJoinPool pool) {
+        assert depth > 0;
+        this.engine = engine;
+        this.depth = depth;
+        this.minProbability = minProbability;
+        weights = heuristic.getWeights();
+        this.pool = pool;
+        words = engine.words();
+        table = new long[2 << TABLE_BITS];
+        mask = (1 << TABLE_BITS) - 1;
+        nodes = new LongAdder();
+        scratch = ThreadLocal.withInitial(() -> new long[depth + 1][words]);
+        features = ThreadLocal.withInitial(() -> new int[Heuristic.COUNT]);
+    }
+
+    /**
+     * Best swipe for a board
+     * @param board
+     * @return LEFT, UP, RIGHT or DOWN, -1 when nothing moves
+     */
+    public int best(long[] board) {
+        Root root = new Root(board);
+        pool.invoke(root);
+        return root.direction;
+    }
+
+    /**
+     * Play a whole game with the spawns of a seed, like the evaluated games
+     * @param seed spawn seed
+     * @param limit maximum number of moviments
+     * @return
+     */
+    public Result play(long seed, int limit) {
+        long start = System.nanoTime();
+        long startNodes = nodes.sum();
+        long[] board = new long[words];
+        engine.start(board, 0, seed);
+        int score = 0;
+        int moviments = 0;
+        while (moviments < limit) {
+            int direction = best(board);
+            if (direction < 0) {
+                break;
+            }
+            score += engine.play(board, 0, direction, seed, moviments);
+            moviments++;
+        }
+        return new Result(board, score, moviments, nodes.sum() - startNodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Drop the boards kept in the table
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * Number of boards evaluated, to measure the engine
+     * @return
+     */
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    private double max(long[] board, int level, double probability) {
+        nodes.increment();
+        int left = depth - level;
+        if (left == 0 || probability < minProbability) {
+            return leaf(board);
+        }
+        long key = engine.hash(board, 0);
+        int slot = (int) (mix(key) & mask) << 1;
+        long data = table[slot + 1];
+        if (data != 0 && (table[slot] ^ data) == key && (int) (data & 0xFF) >= left) {
+            return Float.intBitsToFloat((int) (data >>> 32));
+        }
+
+        long[] moved = scratch.get()[level];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int direction = 0; direction < 4; direction++) {
+            System.arraycopy(board, 0, moved, 0, words);
+            int gained = engine.move(moved, 0, direction);
+            if (gained < 0) {
+                continue;
+            }
+            best = Math.max(best, weights[Heuristic.SCORE] * gained + chance(moved, level, probability));
+        }
+        if (best == Double.NEGATIVE_INFINITY) {
+            best = leaf(board) - LOST;
+        }
+
+        data = (long) Float.floatToIntBits((float) best) << 32 | left;
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+        return best;
+    }
+
+    /**
+     * Mean of the new numbers in each free cell, the cells are set and cleared in place
+     */
+    private double chance(long[] board, int level, double probability) {
+        int spaces = engine.countSpaces(board, 0);
+        double sum = 0;
+        for (int i = 0; i < engine.getHeight(); i++) {
+            for (int j = 0; j < engine.getWidth(); j++) {
+                if (engine.get(board, 0, i, j) == 0) {
+                    sum += cell(board, i, j, level, probability / spaces);
+                }
+            }
+        }
+        return sum / spaces;
+    }
+
+    private double cell(long[] board, int i, int j, int level, double probability) {
+        engine.set(board, 0, i, j, 1);
+        double value = (1 - FOUR) * max(board, level + 1, probability * (1 - FOUR));
+        engine.set(board, 0, i, j, 2);
+        value += FOUR * max(board, level + 1, probability * FOUR);
+        engine.set(board, 0, i, j, 0);
+        return value;
+    }
+
+    private double leaf(long[] board) {
+        int[] values = features.get();
+        Heuristic.features(engine, board, 0, 0, values);
+        double sum = 0;
+        for (int f = Heuristic.SCORE + 1; f < Heuristic.COUNT; f++) {
+            sum += weights[f] * values[f];
+        }
+        return sum;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Root of the search: a task for each free cell after each swipe
+     */
+    private final class Root extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] board;
+        private int direction = -1;
+
+        Root(long[] board) {
+            this.board = board;
+        }
+
+        @Override
+        protected void compute() {
+            nodes.increment();
+            int[] gained = new int[4];
+            List<List<Cell>> cells = new ArrayList<>();
+            List<Cell> all = new ArrayList<>();
+            for (int d = 0; d < 4; d++) {
+                long[] moved = board.clone();
+                gained[d] = engine.move(moved, 0, d);
+                List<Cell> tasks = new ArrayList<>();
+                if (gained[d] >= 0) {
+                    int spaces = engine.countSpaces(moved, 0);
+                    for (int i = 0; i < engine.getHeight(); i++) {
+                        for (int j = 0; j < engine.getWidth(); j++) {
+                            if (engine.get(moved, 0, i, j) == 0) {
+                                tasks.add(new Cell(moved, i, j, 1.0 / spaces));
+                            }
+                        }
+                    }
+                }
+                cells.add(tasks);
+                all.addAll(tasks);
+            }
+            invokeAll(all);
+
+            double best = Double.NEGATIVE_INFINITY;
+            for (int d = 0; d < 4; d++) {
+                if (gained[d] < 0) {
+                    continue;
+                }
+                double sum = 0;
+                for (Cell cell : cells.get(d)) {
+                    sum += cell.join();
+                }
+                // A swipe always frees a cell, so there is at least one task
+                double value = weights[Heuristic.SCORE] * gained[d] + sum / cells.get(d).size();
+                if (value > best) {
+                    best = value;
+                    direction = d;
+                }
+            }
+        }
+    }
+
+    /**
+     * A new number in a free cell after a swipe of the root
+     */
+    private final class Cell extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] moved;
+        private final int i;
+        private final int j;
+        private final double probability;
+
+        Cell(long[] moved, int i, int j, double probability) {
+            this.moved = moved;
+            this.i = i;
+            this.j = j;
+            this.probability = probability;
+        }
+
+        @Override
+        protected Double compute() {
+            long[] board = moved.clone();
+            return cell(board, i, j, 0, probability);
+        }
+    }
+
+    /**
+     * A game played by the solver
+     */
+    public static class Result {
+        private final long[] board;
+        private final int score;
+        private final int moviments;
+        private final long nodes;
+        private final long nanos;
+
+        Result(long[] board, int score, int moviments, long nodes, long nanos) {
+            this.board = board;
+            this.score = score;
+            this.moviments = moviments;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        public long[] getBoard() {
+            return board;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getMoviments() {
+            return moviments;
+        }
+
+        /**
+         * Boards evaluated in the game
+         * @return
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * Boards evaluated by second
+         * @return
+         */
+        public double getNodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Precomputed features of a line of cells, all of them packed in one int per line
+ * The tables are built once per line length like the swipe tables,
+ * longer lines are measured cell by cell
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see LineTable
+ */
+final class FeatureTable {
+
+    static final int EMPTY_SHIFT = 0;
+    static final int MERGES_SHIFT = 5;
+    static final int SMOOTHNESS_SHIFT = 10;
+    static final int MONOTONICITY_SHIFT = 18;
+    static final int MAX_SHIFT = 26;
+    static final int SMALL_MASK = 0x1F;
+    static final int BIG_MASK = 0xFF;
+
+    private static final FeatureTable[] TABLES = new FeatureTable[LineTable.TABLE_LIMIT + 1];
+
+    private final int[] features;
+
+    private FeatureTable(int length) {
+        features = new int[1 << (4 * length)];
+        for (int line = 0; line < features.length; line++) {
+            features[line] = measure(line, length);
+        }
+    }
+
+    /**
+     * Table of a line length, built on the first use
+     * @param length between 1 and TABLE_LIMIT
+     * @return
+     */
+    static synchronized FeatureTable of(int length) {
+        if (TABLES[length] == null) {
+            TABLES[length] = new FeatureTable(length);
+        }
+        return TABLES[length];
+    }
+
+    /**
+     * Packed features of a line
+     * @param line
+     * @return
+     */
+    int get(long line) {
+        return features[(int) line];
+    }
+
+    /**
+     * Measure a line without tables
+     * The smoothness and the monotonicity are penalties: the sum of the differences between
+     * neighbours and the smaller of the sums going up and going down
+     * @param line cells packed in nibbles
+     * @param length number of cells, up to 16
+     * @return empty cells, possible merges, smoothness, monotonicity and biggest cell packed
+     */
+    static int measure(long line, int length) {
+        int empty = 0;
+        int merges = 0;
+        int smoothness = 0;
+        int up = 0;
+        int down = 0;
+        int max = 0;
+        int last = 0;
+        for (int j = 0; j < length; j++) {
+            int cell = (int) ((line >>> (4 * j)) & 0xF);
+            if (cell == 0) {
+                empty++;
+                continue;
+            }
+            max = Math.max(max, cell);
+            if (last != 0) {
+                if (cell == last && cell < 15) {
+                    merges++;
+                }
+                smoothness += Math.abs(cell - last);
+                if (cell > last) {
+                    up += cell - last;
+                } else {
+                    down += last - cell;
+                }
+            }
+            last = cell;
+        }
+        return empty << EMPTY_SHIFT | merges << MERGES_SHIFT | Math.min(smoothness, BIG_MASK) << SMOOTHNESS_SHIFT
+                | Math.min(Math.min(up, down), BIG_MASK) << MONOTONICITY_SHIFT | max << MAX_SHIFT;
+    }
+}
@@ -0,0 +1,250 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.PolicyGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of the evaluated genomes, so a duplicated child is not played again
+ * The key is a 128 bits hash of the packed genes, the spawn seed, the board size and the kind of game.
+ * The memo keeps the entries used in the last generations and drops the oldest ones
+ * when it is full. An archive on disk can back the memo, so the results are kept between runs
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class FitnessMemo {
+
+    public static final int CAPACITY = 100000;
+    public static final int MAX_AGE = 8;
+
+    private final int capacity;
+    private final int maxAge;
+    private final Map<Key, Entry> entries;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder archived;
+    private volatile GenomeArchive archive;
+    private volatile int generation;
+    private long lastHits;
+    private long lastMisses;
+    private long lastArchived;
+
+    /**
+     * Constructor with the default capacity and age
+     */
+    public FitnessMemo() {
+        this(CAPACITY, MAX_AGE);
+    }
+
+    /**
+     * Constructor with the limits of the memo
+     * @param capacity number of entries kept
+     * @param maxAge generations that an entry is kept without being used
+     */
+    public FitnessMemo(int capacity, int maxAge) {
+        assert capacity > 0 && maxAge > 0;
+        this.capacity = capacity;
+        this.maxAge = maxAge;
+        entries = new ConcurrentHashMap<>();
+        hits = new LongAdder();
+        misses = new LongAdder();
+        archived = new LongAdder();
+        generation = 0;
+    }
+
+    /**
+     * Result of a game with the same genes, seed and board size
+     * @param game
+     * @return null when it is not known
+     */
+    public Checkpoints get(Game game) {
+        Key key = key(game);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            GenomeArchive archive = this.archive;
+            Checkpoints checkpoints = archive == null ? null : archive.get(key, game.getPackedGenes());
+            if (checkpoints == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            archived.increment();
+            entries.put(key, new Entry(checkpoints, generation));
+            return checkpoints;
+        }
+        hits.increment();
+        entry.generation = generation;
+        return entry.checkpoints;
+    }
+
+    /**
+     * Keep the result of a game
+     * @param game
+     * @param checkpoints
+     */
+    public void put(Game game, Checkpoints checkpoints) {
+        Key key = key(game);
+        entries.put(key, new Entry(checkpoints, generation));
+        GenomeArchive archive = this.archive;
+        if (archive != null) {
+            archive.put(key, checkpoints);
+        }
+    }
+
+    /**
+     * Close the generation: save its hit rate and drop the old entries
+     */
+    public synchronized void advance() {
+        lastHits = hits.sumThenReset();
+        lastMisses = misses.sumThenReset();
+        lastArchived = archived.sumThenReset();
+        int current = generation;
+        entries.values().removeIf(entry -> current - entry.generation >= maxAge);
+        if (entries.size() > capacity) {
+            List<Map.Entry<Key, Entry>> list = new ArrayList<>(entries.entrySet());
+            list.sort((a, b) -> Integer.compare(a.getValue().generation, b.getValue().generation));
+            for (int i = 0; i < list.size() - capacity; i++) {
+                entries.remove(list.get(i).getKey());
+            }
+        }
+        generation = current + 1;
+    }
+
+    /**
+     * Number of games found in the last generation
+     * @return
+     */
+    public long getHits() {
+        return lastHits;
+    }
+
+    /**
+     * Number of games not found in the last generation
+     * @return
+     */
+    public long getMisses() {
+        return lastMisses;
+    }
+
+    /**
+     * Number of games found in the archive in the last generation, they are counted in the hits too
+     * @return
+     */
+    public long getArchived() {
+        return lastArchived;
+    }
+
+    /**
+     * Part of the games found in the last generation
+     * @return
+     */
+    public double getHitRate() {
+        long total = lastHits + lastMisses;
+        return total == 0 ? 0 : lastHits / (double) total;
+    }
+
+    /**
+     * Archive that backs the memo
+     * @return null when there is none
+     */
+    public GenomeArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Archive read when a game is not in the memo and written with every new result
+     * @param archive null to keep the results only in memory
+     */
+    public void setArchive(GenomeArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Number of entries kept
+     * @return
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 128 bits hash of a game: two multiply-xorshift chains with different constants
+     * The gene limit and the kind of game are in the key because the archive keeps results between
+     * runs, and a policy has as many genes as a move script of 2^TABLE_BITS swipes
+     * @param game
+     * @return
+     */
+    static Key key(Game game) {
+        long[] genes = game.getPackedGenes();
+        long low = game.getSpawnSeed() ^ 0x9E3779B97F4A7C15L;
+        long high = game.size() * 0xC2B2AE3D27D4EB4FL
+                + ((long) kind(game) << 40 | (long) game.getGeneration().getGeneLimit() << 16
+                | game.getWidth() << 8 | game.getHeight());
+        for (long word : genes) {
+            low = mix((low ^ word) * 0xBF58476D1CE4E5B9L);
+            high = mix((high + word) * 0x94D049BB133111EBL);
+        }
+        return new Key(low, high);
+    }
+
+    /**
+     * Tag of the way the genes are played, 0 for a move script so the archived scripts keep their keys
+     * @param game
+     * @return
+     */
+    private static int kind(Game game) {
+        return game instanceof PolicyGame ? 1 : 0;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 31)) * 0xD6E8FEB86659FD93L;
+        return z ^ (z >>> 32);
+    }
+
+    static final class Key {
+        private final long low;
+        private final long high;
+
+        Key(long low, long high) {
+            this.low = low;
+            this.high = high;
+        }
+
+        long getLow() {
+            return low;
+        }
+
+        long getHigh() {
+            return high;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return low == key.low && high == key.high;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+
+    private static final class Entry {
+        private final Checkpoints checkpoints;
+        private volatile int generation;
+
+        Entry(Checkpoints checkpoints, int generation) {
+            this.checkpoints = checkpoints;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+
+/**
+ * Plays the games of a generation without the screen
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see Evaluator
+ * @see BatchEvaluator
+ */
+public interface GenerationEvaluator {
+
+    /**
+     * Evaluate the games of a generation that are still running
+     * @param generation
+     */
+    void evaluate(Generation<? extends Game> generation);
+}
@@ -0,0 +1,159 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Chromosome;
+import br.nataliakt.e2048.ga.Diversity;
+import br.nataliakt.e2048.ga.Generation;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Summary of a finished generation, sent to the subscribers of the evolution
+ * It does not keep the generation, so a buffered event does not hold the games in memory
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class GenerationEvent {
+
+    public static final int ELITES = 4;
+
+    private final long generationId;
+    private final int size;
+    private final int bestFitness;
+    private final double meanFitness;
+    private final int worstFitness;
+    private final double mutation;
+    private final Diversity diversity;
+    private final long[] eliteIds;
+    private final int[] eliteFitness;
+    private final long time;
+
+    /**
+     * Constructor with the measures
+     * @param generationId
+     * @param size
+     * @param bestFitness
+     * @param meanFitness
+     * @param worstFitness
+     * @param mutation
+     * @param diversity
+     * @param eliteIds ids of the best chromosomes, the best first
+     * @param eliteFitness fitness of the best chromosomes
+     */
+    public GenerationEvent(long generationId, int size, int bestFitness, double meanFitness, int worstFitness,
+                           double mutation, Diversity diversity, long[] eliteIds, int[] eliteFitness) {
+        this.generationId = generationId;
+        this.size = size;
+        this.bestFitness = bestFitness;
+        this.meanFitness = meanFitness;
+        this.worstFitness = worstFitness;
+        this.mutation = mutation;
+        this.diversity = diversity;
+        this.eliteIds = eliteIds;
+        this.eliteFitness = eliteFitness;
+        time = System.currentTimeMillis();
+    }
+
+    /**
+     * Summary of a generation with the default number of elites
+     * @param generation
+     * @return
+     */
+    public static GenerationEvent of(Generation<?> generation) {
+        return of(generation, ELITES);
+    }
+
+    /**
+     * Summary of a generation
+     * @param generation a generation with all the games finished
+     * @param elites number of best chromosomes in the event
+     * @return
+     */
+    public static GenerationEvent of(Generation<?> generation, int elites) {
+        int[] fitness = generation.getChromosomeList().mapToInt(Chromosome::getFitness).toArray();
+        int best = 0;
+        int worst = fitness.length == 0 ? 0 : Integer.MAX_VALUE;
+        long sum = 0;
+        for (int value : fitness) {
+            best = Math.max(best, value);
+            worst = Math.min(worst, value);
+            sum += value;
+        }
+        List<Chromosome> top = generation.getChromosomeList()
+                .sorted(Comparator.comparingInt(Chromosome::getFitness).reversed())
+                .limit(elites)
+                .collect(Collectors.toList());
+        long[] eliteIds = new long[top.size()];
+        int[] eliteFitness = new int[top.size()];
+        for (int i = 0; i < top.size(); i++) {
+            eliteIds[i] = top.get(i).getId();
+            eliteFitness[i] = top.get(i).getFitness();
+        }
+        return new GenerationEvent(generation.getId(), fitness.length, best,
+                fitness.length == 0 ? 0 : sum / (double) fitness.length, worst,
+                generation.getMutation(), generation.getDiversity(), eliteIds, eliteFitness);
+    }
+
+    public long getGenerationId() {
+        return generationId;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getBestFitness() {
+        return bestFitness;
+    }
+
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    public int getWorstFitness() {
+        return worstFitness;
+    }
+
+    public double getMutation() {
+        return mutation;
+    }
+
+    public Diversity getDiversity() {
+        return diversity;
+    }
+
+    /**
+     * Ids of the best chromosomes, the best first
+     * @return
+     */
+    public long[] getEliteIds() {
+        return eliteIds.clone();
+    }
+
+    /**
+     * Fitness of the best chromosomes, in the order of the ids
+     * @return
+     */
+    public int[] getEliteFitness() {
+        return eliteFitness.clone();
+    }
+
+    /**
+     * Time when the event was created, in milliseconds
+     * @return
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Line with the values separated by tabs
+     * @return
+     */
+    @Override
+    public String toString() {
+        return generationId + "\t" + size + "\t" + bestFitness + "\t" + meanFitness + "\t" + worstFitness
+                + "\t" + mutation + "\t" + diversity;
+    }
+}
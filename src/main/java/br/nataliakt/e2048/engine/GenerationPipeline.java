@@ -0,0 +1,96 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Breeds (and evaluates) the next generation in a background thread while the current one is shown
+ * There is at most one generation in preparation, the screen takes it when it is ready
+ * and starts the preparation of the following one
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class GenerationPipeline implements AutoCloseable {
+
+    private final GenerationEvaluator evaluator;
+    private final ExecutorService executor;
+    private Future<Generation<Game>> pending;
+
+    /**
+     * Constructor with the evaluator of the next generations
+     * @param evaluator null to only breed, the games are played on the screen
+     */
+    public GenerationPipeline(GenerationEvaluator evaluator) {
+        this.evaluator = evaluator;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generation-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the preparation of the generation after a finished one
+     * @param current a generation with all the games finished
+     */
+    public synchronized void prefetch(Generation<Game> current) {
+        assert pending == null;
+        pending = executor.submit(() -> {
+            Generation<Game> next = current.nextGeneration(current.getChromosomeClass());
+            if (evaluator != null) {
+                evaluator.evaluate(next);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * If a generation is being prepared or is ready
+     * @return
+     */
+    public synchronized boolean isPending() {
+        return pending != null;
+    }
+
+    /**
+     * The next generation if it is ready, without waiting
+     * @return null when it is not ready
+     */
+    public synchronized Generation<Game> poll() {
+        if (pending == null || !pending.isDone()) {
+            return null;
+        }
+        return take();
+    }
+
+    /**
+     * The next generation, waiting for it
+     * @return
+     * @throws IllegalStateException when nothing was prefetched or the preparation failed
+     */
+    public synchronized Generation<Game> take() {
+        if (pending == null) {
+            throw new IllegalStateException("No generation in preparation");
+        }
+        Future<Generation<Game>> future = pending;
+        pending = null;
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generation not prepared", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the generation", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,328 @@
+package br.nataliakt.e2048.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Results of the evaluated genomes saved on disk, shared by many runs
+ * The results are appended to a data log and found by an open addressing index in a memory
+ * mapped file. Only the process that locks the log writes, the others only read. A slot is
+ * filled after its record is written and a reader checks the key of the record, so a reader
+ * never takes a half written entry
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class GenomeArchive implements Closeable {
+
+    public static final int CAPACITY = 1 << 20;
+    public static final int MAX_CAPACITY = 1 << 26; // Slots of the biggest index below the 2 GB of a mapping
+    public static final String INDEX_FILE = "index.bin";
+    public static final String DATA_FILE = "data.log";
+
+    private static final int MAGIC = 0x32303438;
+    private static final int HEADER = 16;
+    private static final int SLOT = 24;
+    private static final int RECORD = 36;
+    private static final double LOAD = 0.7;
+
+    private final Path directory;
+    private final FileChannel data;
+    private final FileLock lock;
+    private FileChannel indexChannel;
+    private volatile MappedByteBuffer index;
+    private int capacity;
+    private int count;
+    private long end;
+    private boolean full;
+
+    /**
+     * Open or create an archive with the default capacity
+     * @param directory
+     * @throws IOException
+     */
+    public GenomeArchive(Path directory) throws IOException {
+        this(directory, CAPACITY);
+    }
+
+    /**
+     * Open or create an archive
+     * @param directory
+     * @param capacity initial number of slots of a new index, a power of two
+     * @throws IOException
+     * @throws IllegalArgumentException when the capacity is over MAX_CAPACITY
+     */
+    public GenomeArchive(Path directory, int capacity) throws IOException {
+        assert Integer.bitCount(capacity) == 1;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Index of " + capacity + " slots, the limit is " + MAX_CAPACITY);
+        }
+        this.directory = directory;
+        Files.createDirectories(directory);
+        data = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lock = tryLock(data);
+        end = data.size();
+        if (lock != null && end == 0) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            header.putInt(MAGIC).putInt(0).flip();
+            data.write(header, 0);
+            end = 8;
+        }
+        openIndex(capacity);
+        if (lock != null && count >= this.capacity * LOAD && this.capacity < MAX_CAPACITY) {
+            grow();
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private void openIndex(int newCapacity) throws IOException {
+        Path path = directory.resolve(INDEX_FILE);
+        boolean exists = Files.exists(path);
+        if (!exists && lock == null) {
+            throw new IOException("Archive without index and locked by another writer: " + directory);
+        }
+        if (lock != null) {
+            indexChannel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } else {
+            indexChannel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+        if (exists) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            indexChannel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a genome archive: " + path);
+            }
+            capacity = header.getInt();
+            if (capacity > MAX_CAPACITY) {
+                throw new IOException("Index of " + capacity + " slots, the limit is " + MAX_CAPACITY + ": " + path);
+            }
+        } else {
+            capacity = newCapacity;
+        }
+        long size = HEADER + (long) capacity * SLOT;
+        index = indexChannel.map(lock != null ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, size);
+        if (!exists) {
+            index.putInt(0, MAGIC);
+            index.putInt(4, capacity);
+            index.putInt(8, 0);
+        }
+        count = index.getInt(8);
+    }
+
+    /**
+     * Double the index, copying the slots to a new file
+     * It runs under the lock of put, the readers keep the old mapping until the new one is set
+     * @throws IOException
+     */
+    private void grow() throws IOException {
+        int newCapacity = capacity * 2;
+        Path temporary = directory.resolve(INDEX_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer grown = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER + (long) newCapacity * SLOT);
+            grown.putInt(0, MAGIC);
+            grown.putInt(4, newCapacity);
+            grown.putInt(8, count);
+            for (int slot = 0; slot < capacity; slot++) {
+                int position = HEADER + slot * SLOT;
+                long offset = index.getLong(position + 16);
+                if (offset == 0) {
+                    continue;
+                }
+                long low = index.getLong(position);
+                int target = find(grown, newCapacity, low, index.getLong(position + 8));
+                grown.putLong(target, low);
+                grown.putLong(target + 8, index.getLong(position + 8));
+                grown.putLong(target + 16, offset);
+            }
+            grown.force();
+        }
+        indexChannel.close();
+        Files.move(temporary, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        openIndex(newCapacity);
+    }
+
+    /**
+     * Position of the slot of a key, or of the empty slot where it would be
+     * @return -1 when the index is full
+     */
+    private static int find(ByteBuffer index, int capacity, long low, long high) {
+        int mask = capacity - 1;
+        int slot = (int) (low ^ (low >>> 32)) & mask;
+        for (int probe = 0; probe < capacity; probe++) {
+            int position = HEADER + slot * SLOT;
+            long offset = index.getLong(position + 16);
+            if (offset == 0 || (index.getLong(position) == low && index.getLong(position + 8) == high)) {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Result saved for a key
+     * @param key
+     * @param genes packed genes of the game, kept in the returned checkpoints
+     * @return the final state without checkpoints, or null when it is not saved
+     */
+    Checkpoints get(FitnessMemo.Key key, long[] genes) {
+        // The capacity comes from the same mapping, an index that grows meanwhile is not mixed up
+        MappedByteBuffer index = this.index;
+        int position = find(index, index.getInt(4), key.getLow(), key.getHigh());
+        if (position < 0) {
+            return null;
+        }
+        long offset = index.getLong(position + 16);
+        if (offset == 0) {
+            return null;
+        }
+        try {
+            ByteBuffer record = ByteBuffer.allocate(RECORD);
+            if (data.read(record, offset) < RECORD) {
+                return null;
+            }
+            record.flip();
+            if (record.getLong() != key.getLow() || record.getLong() != key.getHigh()) {
+                return null;
+            }
+            int score = record.getInt();
+            int moviments = record.getInt();
+            int played = record.getInt();
+            boolean over = record.getInt() != 0;
+            int words = record.getInt();
+            ByteBuffer boardBuffer = ByteBuffer.allocate(words * 8);
+            data.read(boardBuffer, offset + RECORD);
+            boardBuffer.flip();
+            long[] board = new long[words];
+            boardBuffer.asLongBuffer().get(board);
+            Checkpoints checkpoints = new Checkpoints(genes, 0, 1, words);
+            checkpoints.finish(played, over, board, score, moviments);
+            return checkpoints;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Save the result of a key, the first result of a key is kept
+     * @param key
+     * @param checkpoints
+     * @return if it was saved, false when read only, already saved or full at MAX_CAPACITY
+     */
+    synchronized boolean put(FitnessMemo.Key key, Checkpoints checkpoints) {
+        if (lock == null || !ensureCapacity()) {
+            return false;
+        }
+        int position = find(index, capacity, key.getLow(), key.getHigh());
+        if (position < 0 || index.getLong(position + 16) != 0) {
+            return false;
+        }
+        long[] board = checkpoints.getBoard();
+        ByteBuffer record = ByteBuffer.allocate(RECORD + board.length * 8);
+        record.putLong(key.getLow()).putLong(key.getHigh());
+        record.putInt(checkpoints.getScore()).putInt(checkpoints.getMoviments());
+        record.putInt(checkpoints.getEnd()).putInt(checkpoints.isOver() ? 1 : 0);
+        record.putInt(board.length);
+        for (long word : board) {
+            record.putLong(word);
+        }
+        record.flip();
+        long offset = end;
+        try {
+            while (record.hasRemaining()) {
+                data.write(record, offset + record.position());
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        end = offset + record.limit();
+        index.putLong(position, key.getLow());
+        index.putLong(position + 8, key.getHigh());
+        index.putLong(position + 16, offset);
+        count++;
+        index.putInt(8, count);
+        return true;
+    }
+
+    /**
+     * Grow the index when it reaches the load limit
+     * @return false when it can not take another result
+     */
+    private boolean ensureCapacity() {
+        if (count < capacity * LOAD) {
+            return true;
+        }
+        if (capacity >= MAX_CAPACITY) {
+            if (!full) {
+                full = true;
+                System.err.println("Genome archive full at " + capacity + " slots, new results are not saved: "
+                        + directory);
+            }
+            return false;
+        }
+        try {
+            grow();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * If this process writes in the archive
+     * @return
+     */
+    public boolean isWritable() {
+        return lock != null;
+    }
+
+    /**
+     * Number of results saved when the archive was opened or by this process
+     * @return
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Number of slots of the index
+     * @return
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (lock != null) {
+            index.force();
+            data.force(true);
+            lock.release();
+        }
+        indexChannel.close();
+        data.close();
+    }
+}
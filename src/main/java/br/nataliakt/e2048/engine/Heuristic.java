@@ -0,0 +1,134 @@
+package br.nataliakt.e2048.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fitness of a game as a weighted sum of features of its final board
+ * The features of each row and column come from one lookup, so a 4x4 board costs eight lookups
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class Heuristic {
+
+    /** Score of the game */
+    public static final int SCORE = 0;
+    /** Empty cells */
+    public static final int EMPTY = 1;
+    /** Sum over the lines of the smaller of the climbs up and down, a penalty */
+    public static final int MONOTONICITY = 2;
+    /** Sum of the differences between neighbours, a penalty */
+    public static final int SMOOTHNESS = 3;
+    /** Biggest exponent when it is in a corner, 0 otherwise */
+    public static final int CORNER = 4;
+    /** Neighbours that a swipe would sum */
+    public static final int MERGES = 5;
+    public static final int COUNT = 6;
+
+    private static final ThreadLocal<long[]> LINES = ThreadLocal.withInitial(() -> new long[32]);
+    private static final ThreadLocal<int[]> FEATURES = ThreadLocal.withInitial(() -> new int[COUNT]);
+
+    private final double[] weights;
+
+    /**
+     * Constructor with a weight for each feature
+     * @param weights indexed by SCORE, EMPTY, MONOTONICITY, SMOOTHNESS, CORNER and MERGES
+     */
+    public Heuristic(double... weights) {
+        assert weights.length == COUNT;
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Only the score, the same as the games without heuristic
+     * @return
+     */
+    public static Heuristic score() {
+        return new Heuristic(1, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Features of a board
+     * @param engine
+     * @param boards
+     * @param offset first long of the board
+     * @param score score of the game
+     * @param features receives COUNT features
+     */
+    public static void features(BoardEngine engine, long[] boards, int offset, int score, int[] features) {
+        int width = engine.getWidth();
+        int height = engine.getHeight();
+        long[] lines = LINES.get();
+        engine.lines(boards, offset, lines);
+        FeatureTable rows = width <= LineTable.TABLE_LIMIT ? FeatureTable.of(width) : null;
+        FeatureTable columns = height <= LineTable.TABLE_LIMIT ? FeatureTable.of(height) : null;
+        int empty = 0;
+        int merges = 0;
+        int smoothness = 0;
+        int monotonicity = 0;
+        int max = 0;
+        for (int k = 0; k < height + width; k++) {
+            int packed;
+            if (k < height) {
+                packed = rows != null ? rows.get(lines[k]) : FeatureTable.measure(lines[k], width);
+                // The empty cells are counted only in the rows
+                empty += (packed >>> FeatureTable.EMPTY_SHIFT) & FeatureTable.SMALL_MASK;
+                max = Math.max(max, packed >>> FeatureTable.MAX_SHIFT);
+            } else {
+                packed = columns != null ? columns.get(lines[k]) : FeatureTable.measure(lines[k], height);
+            }
+            merges += (packed >>> FeatureTable.MERGES_SHIFT) & FeatureTable.SMALL_MASK;
+            smoothness += (packed >>> FeatureTable.SMOOTHNESS_SHIFT) & FeatureTable.BIG_MASK;
+            monotonicity += (packed >>> FeatureTable.MONOTONICITY_SHIFT) & FeatureTable.BIG_MASK;
+        }
+        boolean corner = max > 0 && (engine.get(boards, offset, 0, 0) == max
+                || engine.get(boards, offset, 0, width - 1) == max
+                || engine.get(boards, offset, height - 1, 0) == max
+                || engine.get(boards, offset, height - 1, width - 1) == max);
+        features[SCORE] = score;
+        features[EMPTY] = empty;
+        features[MONOTONICITY] = monotonicity;
+        features[SMOOTHNESS] = smoothness;
+        features[CORNER] = corner ? max : 0;
+        features[MERGES] = merges;
+    }
+
+    /**
+     * Weighted sum of features
+     * @param features
+     * @return never negative, so it can be used by the roulette
+     */
+    public int fitness(int[] features) {
+        double sum = 0;
+        for (int f = 0; f < COUNT; f++) {
+            sum += weights[f] * features[f];
+        }
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(sum)));
+    }
+
+    /**
+     * Fitness of a board
+     * @param engine
+     * @param boards
+     * @param offset first long of the board
+     * @param score score of the game
+     * @return
+     */
+    public int fitness(BoardEngine engine, long[] boards, int offset, int score) {
+        int[] features = FEATURES.get();
+        features(engine, boards, offset, score, features);
+        return fitness(features);
+    }
+
+    /**
+     * Weight of each feature
+     * @return
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "Heuristic " + Arrays.toString(weights);
+    }
+}
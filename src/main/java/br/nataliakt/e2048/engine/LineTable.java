@@ -0,0 +1,139 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Precomputed swipes of a line of cells, one nibble per cell with the first cell in the lowest nibble
+ * The tables are built once per line length and shared by all the engines
+ * Lines longer than TABLE_LIMIT cells are too big for tables and are slid cell by cell
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+final class LineTable {
+
+    public static final int TABLE_LIMIT = 5;
+
+    private static final LineTable[] TABLES = new LineTable[TABLE_LIMIT + 1];
+
+    private final int length;
+    private final int entries;
+    private final int[] lines;
+    private final int[] scores;
+
+    private LineTable(int length) {
+        this.length = length;
+        entries = 1 << (4 * length);
+        lines = new int[2 * entries];
+        scores = new int[2 * entries];
+        int[] cells = new int[length + 1];
+        for (int line = 0; line < entries; line++) {
+            lines[line] = (int) slide(line, length, false, cells);
+            scores[line] = cells[length];
+            lines[entries + line] = (int) slide(line, length, true, cells);
+            scores[entries + line] = cells[length];
+        }
+    }
+
+    /**
+     * Table of a line length, built on the first use
+     * @param length between 1 and TABLE_LIMIT
+     * @return
+     */
+    static synchronized LineTable of(int length) {
+        if (TABLES[length] == null) {
+            TABLES[length] = new LineTable(length);
+        }
+        return TABLES[length];
+    }
+
+    /**
+     * Line after a swipe to the first cell
+     * @param line
+     * @return
+     */
+    int left(long line) {
+        return lines[(int) line];
+    }
+
+    /**
+     * Line after a swipe to the last cell
+     * @param line
+     * @return
+     */
+    int right(long line) {
+        return lines[entries + (int) line];
+    }
+
+    /**
+     * Score of a swipe to the first cell
+     * @param line
+     * @return
+     */
+    int scoreLeft(long line) {
+        return scores[(int) line];
+    }
+
+    /**
+     * Score of a swipe to the last cell
+     * @param line
+     * @return
+     */
+    int scoreRight(long line) {
+        return scores[entries + (int) line];
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    /**
+     * Lines after the swipes, the swipes to the first cell followed by the swipes to the last cell
+     * @return
+     */
+    int[] getLines() {
+        return lines;
+    }
+
+    /**
+     * Scores of the swipes in the same order of the lines
+     * @return
+     */
+    int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Slide and sum a line without tables
+     * The biggest number is 32768, two of them are never summed
+     * @param line cells packed in nibbles
+     * @param length number of cells, up to 16
+     * @param reverse if the swipe goes to the last cell
+     * @param cells work array with length + 1 cells, the score is left in the last one
+     * @return the new line
+     */
+    static long slide(long line, int length, boolean reverse, int[] cells) {
+        int score = 0;
+        int target = 0;
+        int last = 0;
+        for (int n = 0; n < length; n++) {
+            int j = reverse ? length - 1 - n : n;
+            int cell = (int) ((line >>> (4 * j)) & 0xF);
+            if (cell == 0) {
+                continue;
+            }
+            if (last != 0 && last == cell && cell < 15) {
+                cells[target - 1] = cell + 1;
+                score += 1 << (cell + 1);
+                last = 0;
+            } else {
+                cells[target++] = cell;
+                last = cell;
+            }
+        }
+        long result = 0;
+        for (int n = 0; n < target; n++) {
+            int j = reverse ? length - 1 - n : n;
+            result |= (long) cells[n] << (4 * j);
+        }
+        cells[length] = score;
+        return result;
+    }
+}
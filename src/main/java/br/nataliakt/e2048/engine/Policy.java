@@ -0,0 +1,102 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.PackedGenes;
+
+/**
+ * Policy genomes: the genes are a table of swipes indexed by a hash of the board
+ * Each cell is coded by its distance to the biggest number (empty, far, close or top),
+ * the codes of a row form a pattern and the patterns of the rows are hashed into the table.
+ * The same shape of board gets the same swipe whatever its numbers are
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public final class Policy {
+
+    public static final int TABLE_BITS = 12; // Genes of a policy are 2^TABLE_BITS
+    public static final int MOVIMENTS_LIMIT = 1 << 15; // A policy can play forever
+
+    private static final ThreadLocal<long[]> LINES = ThreadLocal.withInitial(() -> new long[32]);
+    private static final ThreadLocal<long[]> WORK = ThreadLocal.withInitial(() -> new long[16]);
+
+    private Policy() {
+    }
+
+    /**
+     * Table index of a board
+     * @param engine
+     * @param boards
+     * @param offset first long of the board
+     * @param tableBits
+     * @return between 0 and 2^tableBits - 1
+     */
+    public static int index(BoardEngine engine, long[] boards, int offset, int tableBits) {
+        int width = engine.getWidth();
+        int height = engine.getHeight();
+        long[] lines = LINES.get();
+        engine.lines(boards, offset, lines);
+        int max = engine.maxExponent(boards, offset);
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < height; i++) {
+            long row = lines[i];
+            long pattern = 0;
+            for (int j = 0; j < width; j++) {
+                int cell = (int) ((row >>> (4 * j)) & 0xF);
+                int code = cell == 0 ? 0 : cell >= max - 1 ? 3 : cell >= max - 3 ? 2 : 1;
+                pattern |= (long) code << (2 * j);
+            }
+            hash = (hash ^ pattern) * 0xBF58476D1CE4E5B9L;
+            hash ^= hash >>> 31;
+        }
+        hash *= 0x94D049BB133111EBL;
+        return (int) ((hash ^ (hash >>> 29)) >>> (64 - tableBits));
+    }
+
+    /**
+     * Swipe of the policy: the gene of the board, or the next direction that moves something
+     * @param engine
+     * @param boards
+     * @param offset first long of the board
+     * @param genes packed genes of the policy
+     * @param bits bits per gene
+     * @param tableBits
+     * @return LEFT, UP, RIGHT or DOWN, -1 when nothing moves
+     */
+    public static int direction(BoardEngine engine, long[] boards, int offset, long[] genes, int bits, int tableBits) {
+        int words = engine.words();
+        long[] work = WORK.get();
+        int gene = PackedGenes.get(genes, index(engine, boards, offset, tableBits), bits);
+        for (int d = 0; d < 4; d++) {
+            System.arraycopy(boards, offset, work, 0, words);
+            if (engine.move(work, 0, (gene + d) & 3) >= 0) {
+                return (gene + d) & 3;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Swipe a board with the policy and put the new number
+     * @param engine
+     * @param boards
+     * @param offset first long of the board
+     * @param genes packed genes of the policy
+     * @param bits bits per gene
+     * @param tableBits
+     * @param seed seed of the run
+     * @param moviments number of moviments before the swipe
+     * @return the score of the sums shifted by 2 with the direction in the low bits, -1 when nothing moves
+     */
+    public static int play(BoardEngine engine, long[] boards, int offset, long[] genes, int bits, int tableBits,
+                           long seed, int moviments) {
+        int gene = PackedGenes.get(genes, index(engine, boards, offset, tableBits), bits);
+        for (int d = 0; d < 4; d++) {
+            int direction = (gene + d) & 3;
+            // Nothing changes when the swipe does not move
+            int gained = engine.play(boards, offset, direction, seed, moviments);
+            if (gained >= 0) {
+                return gained << 2 | direction;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,282 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.PackedGenes;
+import br.nataliakt.e2048.model.Game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A game kept as the seed and the packed genes, so it can be shown again without its board
+ * The boards before each interval of genes are embedded, so a state in the middle of the game
+ * is played from the closest checkpoint
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class Replay {
+
+    public static final int INTERVAL = 64;
+
+    private static final byte VERSION = 1;
+
+    private final long generationId;
+    private final long chromosomeId;
+    private final long spawnSeed;
+    private final int width;
+    private final int height;
+    private final int bits;
+    private final int size;
+    private final long[] genes;
+    private final int interval;
+    private final long[] boards;
+    private final int[] scores;
+    private final int[] moviments;
+    private final BoardEngine engine;
+
+    private Replay(long generationId, long chromosomeId, long spawnSeed, int width, int height, int bits,
+                   int size, long[] genes, int interval, long[] boards, int[] scores, int[] moviments) {
+        this.generationId = generationId;
+        this.chromosomeId = chromosomeId;
+        this.spawnSeed = spawnSeed;
+        this.width = width;
+        this.height = height;
+        this.bits = bits;
+        this.size = size;
+        this.genes = genes;
+        this.interval = interval;
+        this.boards = boards;
+        this.scores = scores;
+        this.moviments = moviments;
+        engine = BoardEngine.of(width, height);
+    }
+
+    /**
+     * Record a game with the default interval
+     * @param game
+     * @return
+     */
+    public static Replay record(Game game) {
+        return record(game, INTERVAL);
+    }
+
+    /**
+     * Record a game, playing it once to save the checkpoints
+     * @param game
+     * @param interval genes between two checkpoints
+     * @return
+     */
+    public static Replay record(Game game, int interval) {
+        assert interval > 0;
+        BoardEngine engine = game.getEngine();
+        int[] swipes = game.getSwipes();
+        int size = swipes.length;
+        int bits = PackedGenes.bitsPerGene(game.getGeneration().getGeneLimit());
+        long[] genes = PackedGenes.pack(swipes, bits);
+        int count = (size - 1) / interval;
+        int words = engine.words();
+        long[] boards = new long[count * words];
+        int[] scores = new int[count];
+        int[] moviments = new int[count];
+
+        long[] board = new long[words];
+        engine.start(board, 0, game.getSpawnSeed());
+        int score = 0;
+        int moviment = 0;
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && i % interval == 0) {
+                int c = i / interval - 1;
+                System.arraycopy(board, 0, boards, c * words, words);
+                scores[c] = score;
+                moviments[c] = moviment;
+            }
+            int gained = engine.play(board, 0, PackedGenes.get(genes, i, bits), game.getSpawnSeed(), moviment);
+            if (gained >= 0) {
+                score += gained;
+                moviment++;
+            }
+        }
+        return new Replay(game.getGeneration().getId(), game.getId(), game.getSpawnSeed(),
+                game.getWidth(), game.getHeight(), bits, size, genes, interval, boards, scores, moviments);
+    }
+
+    /**
+     * State after a number of genes, played from the closest checkpoint
+     * @param index genes played, from 0 to the size
+     * @return
+     */
+    public Frame at(int index) {
+        assert index >= 0 && index <= size;
+        int words = engine.words();
+        long[] board = new long[words];
+        int checkpoint = Math.min(index / interval, scores.length);
+        int score = 0;
+        int moviment = 0;
+        if (checkpoint == 0) {
+            engine.start(board, 0, spawnSeed);
+        } else {
+            System.arraycopy(boards, (checkpoint - 1) * words, board, 0, words);
+            score = scores[checkpoint - 1];
+            moviment = moviments[checkpoint - 1];
+        }
+        for (int i = checkpoint * interval; i < index; i++) {
+            int gained = engine.play(board, 0, PackedGenes.get(genes, i, bits), spawnSeed, moviment);
+            if (gained >= 0) {
+                score += gained;
+                moviment++;
+            }
+        }
+        return new Frame(index, board, score, moviment);
+    }
+
+    /**
+     * Show a state in a game with the same board size, the game stops running
+     * @param game
+     * @param index genes played
+     */
+    public void show(Game game, int index) {
+        Frame frame = at(index);
+        game.finish(frame.getBoard(), frame.getScore(), frame.getMoviments());
+    }
+
+    /**
+     * Swipes of the recorded game, the gene list of a move script
+     * @return
+     */
+    public int[] getGeneList() {
+        return PackedGenes.unpack(genes, size, bits);
+    }
+
+    /**
+     * The replay in bytes
+     * @return
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(40 + genes.length * 8 + boards.length * 8 + scores.length * 8);
+        buffer.put(VERSION);
+        buffer.putLong(generationId).putLong(chromosomeId).putLong(spawnSeed);
+        buffer.put((byte) width).put((byte) height).put((byte) bits);
+        buffer.putInt(size).putInt(interval).putInt(scores.length);
+        for (long word : genes) {
+            buffer.putLong(word);
+        }
+        for (long word : boards) {
+            buffer.putLong(word);
+        }
+        for (int c = 0; c < scores.length; c++) {
+            buffer.putInt(scores[c]).putInt(moviments[c]);
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Read a replay saved by toBytes
+     * @param bytes
+     * @return
+     * @throws IllegalArgumentException when the version is not known
+     */
+    public static Replay fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown replay version: " + version);
+        }
+        long generationId = buffer.getLong();
+        long chromosomeId = buffer.getLong();
+        long spawnSeed = buffer.getLong();
+        int width = buffer.get();
+        int height = buffer.get();
+        int bits = buffer.get();
+        int size = buffer.getInt();
+        int interval = buffer.getInt();
+        int count = buffer.getInt();
+        long[] genes = new long[PackedGenes.words(size, bits)];
+        for (int w = 0; w < genes.length; w++) {
+            genes[w] = buffer.getLong();
+        }
+        long[] boards = new long[count * BoardEngine.of(width, height).words()];
+        for (int w = 0; w < boards.length; w++) {
+            boards[w] = buffer.getLong();
+        }
+        int[] scores = new int[count];
+        int[] moviments = new int[count];
+        for (int c = 0; c < count; c++) {
+            scores[c] = buffer.getInt();
+            moviments[c] = buffer.getInt();
+        }
+        return new Replay(generationId, chromosomeId, spawnSeed, width, height, bits,
+                size, genes, interval, boards, scores, moviments);
+    }
+
+    public long getGenerationId() {
+        return generationId;
+    }
+
+    public long getChromosomeId() {
+        return chromosomeId;
+    }
+
+    public long getSpawnSeed() {
+        return spawnSeed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Number of genes
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * A state of a replay
+     */
+    public static class Frame {
+
+        private final int index;
+        private final long[] board;
+        private final int score;
+        private final int moviments;
+
+        Frame(int index, long[] board, int score, int moviments) {
+            this.index = index;
+            this.board = board;
+            this.score = score;
+            this.moviments = moviments;
+        }
+
+        /**
+         * Genes played
+         * @return
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * The packed board
+         * @return
+         * @see BoardEngine
+         */
+        public long[] getBoard() {
+            return board;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getMoviments() {
+            return moviments;
+        }
+    }
+}
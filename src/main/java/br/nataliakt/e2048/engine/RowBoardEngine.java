@@ -0,0 +1,133 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Engine for boards bigger than 4x4 with one long per row
+ * The cell (i, j) is the nibble j of the long i, so a row has up to 16 cells
+ * Lines up to 5 cells are swiped by lookups, longer lines are slid cell by cell
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class RowBoardEngine extends BoardEngine {
+
+    private static final ThreadLocal<int[]> WORK = ThreadLocal.withInitial(() -> new int[17]);
+
+    private final LineTable rows;
+    private final LineTable columns;
+
+    /**
+     * Constructor with the board dimensions
+     * @param width up to 16
+     * @param height up to 16
+     */
+    public RowBoardEngine(int width, int height) {
+        super(width, height);
+        rows = width <= LineTable.TABLE_LIMIT ? LineTable.of(width) : null;
+        columns = height <= LineTable.TABLE_LIMIT ? LineTable.of(height) : null;
+    }
+
+    @Override
+    public int words() {
+        return height;
+    }
+
+    @Override
+    public int move(long[] boards, int offset, int direction) {
+        switch (direction) {
+            case LEFT:
+                return moveRows(boards, offset, false);
+            case RIGHT:
+                return moveRows(boards, offset, true);
+            case UP:
+                return moveColumns(boards, offset, false);
+            case DOWN:
+                return moveColumns(boards, offset, true);
+            default:
+                return -1;
+        }
+    }
+
+    private int moveRows(long[] boards, int offset, boolean reverse) {
+        int score = 0;
+        boolean moved = false;
+        int[] work = rows == null ? WORK.get() : null;
+        for (int i = 0; i < height; i++) {
+            long line = boards[offset + i];
+            long result;
+            if (rows != null) {
+                result = reverse ? rows.right(line) : rows.left(line);
+                score += reverse ? rows.scoreRight(line) : rows.scoreLeft(line);
+            } else {
+                result = LineTable.slide(line, width, reverse, work);
+                score += work[width];
+            }
+            if (result != line) {
+                boards[offset + i] = result;
+                moved = true;
+            }
+        }
+        return moved ? score : -1;
+    }
+
+    private int moveColumns(long[] boards, int offset, boolean reverse) {
+        int score = 0;
+        boolean moved = false;
+        int[] work = columns == null ? WORK.get() : null;
+        for (int j = 0; j < width; j++) {
+            int shift = 4 * j;
+            long line = 0;
+            for (int i = 0; i < height; i++) {
+                line |= ((boards[offset + i] >>> shift) & 0xF) << (4 * i);
+            }
+            long result;
+            if (columns != null) {
+                result = reverse ? columns.right(line) : columns.left(line);
+                score += reverse ? columns.scoreRight(line) : columns.scoreLeft(line);
+            } else {
+                result = LineTable.slide(line, height, reverse, work);
+                score += work[height];
+            }
+            if (result == line) {
+                continue;
+            }
+            moved = true;
+            long clear = ~(0xFL << shift);
+            for (int i = 0; i < height; i++) {
+                boards[offset + i] = (boards[offset + i] & clear) | ((result >>> (4 * i)) & 0xF) << shift;
+            }
+        }
+        return moved ? score : -1;
+    }
+
+    @Override
+    public void lines(long[] boards, int offset, long[] lines) {
+        System.arraycopy(boards, offset, lines, 0, height);
+        for (int j = 0; j < width; j++) {
+            int shift = 4 * j;
+            long column = 0;
+            for (int i = 0; i < height; i++) {
+                column |= ((boards[offset + i] >>> shift) & 0xF) << (4 * i);
+            }
+            lines[height + j] = column;
+        }
+    }
+
+    @Override
+    public int get(long[] boards, int offset, int i, int j) {
+        return (int) ((boards[offset + i] >>> (4 * j)) & 0xF);
+    }
+
+    @Override
+    public void set(long[] boards, int offset, int i, int j, int exponent) {
+        int shift = 4 * j;
+        boards[offset + i] = (boards[offset + i] & ~(0xFL << shift)) | (long) exponent << shift;
+    }
+
+    @Override
+    public long hash(long[] boards, int offset) {
+        long hash = 0;
+        for (int i = 0; i < height; i++) {
+            hash = (hash ^ boards[offset + i]) * 0x9E3779B97F4A7C15L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,47 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Deterministic choice of the new numbers
+ * The choice is a hash of the run seed, the board and the number of moviments,
+ * so two games with the same moviments until a point have the same boards until there
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public final class Spawn {
+
+    private Spawn() {
+    }
+
+    /**
+     * Hash that chooses the next number
+     * @param seed seed of the run
+     * @param board packed board after the swipe
+     * @param moviments number of moviments after the swipe
+     * @return
+     */
+    public static long hash(long seed, long board, int moviments) {
+        long z = seed + board * 0x9E3779B97F4A7C15L + moviments * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Position of the new number between the free cells
+     * @param hash
+     * @param spaces number of free cells
+     * @return
+     */
+    public static int position(long hash, int spaces) {
+        return (int) ((hash >>> 33) % spaces);
+    }
+
+    /**
+     * Exponent of the new number, 1 (2) or 2 (4) with the same chance
+     * @param hash
+     * @return
+     */
+    public static int exponent(long hash) {
+        return 1 + (int) (hash & 1);
+    }
+}
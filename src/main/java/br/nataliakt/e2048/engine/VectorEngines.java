@@ -0,0 +1,23 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Engines with vector instructions
+ * The Java 8 version has none, the multi-release jar replaces this class on Java 17
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+final class VectorEngines {
+
+    private VectorEngines() {
+    }
+
+    /**
+     * The vector engine of a board size
+     * @param width
+     * @param height
+     * @return null when there is no vector engine
+     */
+    static BoardEngine of(int width, int height) {
+        return null;
+    }
+}
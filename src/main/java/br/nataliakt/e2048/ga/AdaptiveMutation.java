@@ -0,0 +1,52 @@
+package br.nataliakt.e2048.ga;
+
+/**
+ * Changes the mutation chance to keep the diversity of the population in a band
+ * The chance goes up when the distance between the chromosomes is below the band
+ * and goes down when it is above
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class AdaptiveMutation {
+
+    private final double low;
+    private final double high;
+    private final double factor;
+    private final double min;
+    private final double max;
+
+    /**
+     * Constructor with the band of the distance
+     * @param low distance below which the chance goes up
+     * @param high distance above which the chance goes down
+     * @param factor multiplier of each change, bigger than 1
+     * @param min smallest chance
+     * @param max biggest chance
+     */
+    public AdaptiveMutation(double low, double high, double factor, double min, double max) {
+        assert low <= high;
+        assert factor > 1;
+        assert min > 0 && min <= max && max <= 1;
+        this.low = low;
+        this.high = high;
+        this.factor = factor;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Chance for the next generation
+     * @param mutation current chance
+     * @param diversity of the current generation
+     * @return
+     */
+    public double adapt(double mutation, Diversity diversity) {
+        if (diversity.getDistance() < low) {
+            return Math.min(max, Math.max(min, mutation * factor));
+        }
+        if (diversity.getDistance() > high) {
+            return Math.max(min, mutation / factor);
+        }
+        return Math.min(max, Math.max(min, mutation));
+    }
+}
@@ -0,0 +1,171 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded population for the evolution without generations
+ * A new chromosome takes the place of the worst one when it is better. The slots are ordered
+ * by fitness in a min-heap, changed under the lock of the pool, while the parents are chosen
+ * by tournament reading the slots without the lock
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class AsyncPool {
+
+    private final AtomicReferenceArray<Chromosome> slots;
+    private final int[] fitness;
+    private final int[] heap;
+    private volatile int size;
+    private long offered;
+    private long accepted;
+
+    /**
+     * Constructor with the number of chromosomes kept
+     * @param capacity
+     */
+    public AsyncPool(int capacity) {
+        assert capacity > 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        fitness = new int[capacity];
+        heap = new int[capacity];
+    }
+
+    /**
+     * Offer an evaluated chromosome, kept while the pool is not full or when it is better than the worst
+     * @param chromosome
+     * @return if it was kept
+     */
+    public synchronized boolean offer(Chromosome chromosome) {
+        offered++;
+        int value = chromosome.getFitness();
+        int slot;
+        if (size < heap.length) {
+            slot = size;
+            heap[size] = slot;
+            fitness[slot] = value;
+            slots.set(slot, chromosome);
+            siftUp(size);
+            size = size + 1;
+        } else {
+            slot = heap[0];
+            if (value <= fitness[slot]) {
+                return false;
+            }
+            fitness[slot] = value;
+            slots.set(slot, chromosome);
+            siftDown(0);
+        }
+        accepted++;
+        return true;
+    }
+
+    /**
+     * A parent chosen by tournament, without the lock
+     * @param tournament number of chromosomes compared
+     * @param random
+     * @return the best of the compared chromosomes
+     */
+    public Chromosome select(int tournament, Random random) {
+        int n = size;
+        Chromosome best = null;
+        for (int t = 0; t < tournament; t++) {
+            Chromosome candidate = slots.get(random.nextInt(n));
+            if (best == null || candidate.getFitness() > best.getFitness()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The chromosome with the biggest fitness
+     * @return null when the pool is empty
+     */
+    public synchronized Chromosome best() {
+        Chromosome best = null;
+        for (int s = 0; s < size; s++) {
+            Chromosome chromosome = slots.get(s);
+            if (best == null || fitness[s] > best.getFitness()) {
+                best = chromosome;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The smallest fitness kept
+     * @return
+     */
+    public synchronized int worstFitness() {
+        return size == 0 ? 0 : fitness[heap[0]];
+    }
+
+    /**
+     * Copy of the chromosomes kept
+     * @return
+     */
+    public synchronized List<Chromosome> snapshot() {
+        List<Chromosome> list = new ArrayList<>(size);
+        for (int s = 0; s < size; s++) {
+            list.add(slots.get(s));
+        }
+        return list;
+    }
+
+    /**
+     * Number of chromosomes kept
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of chromosomes offered
+     * @return
+     */
+    public synchronized long getOffered() {
+        return offered;
+    }
+
+    /**
+     * Number of chromosomes kept when offered
+     * @return
+     */
+    public synchronized long getAccepted() {
+        return accepted;
+    }
+
+    private void siftUp(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (fitness[heap[parent]] <= fitness[slot]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = slot;
+    }
+
+    private void siftDown(int i) {
+        int slot = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && fitness[heap[child + 1]] < fitness[heap[child]]) {
+                child++;
+            }
+            if (fitness[slot] <= fitness[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = slot;
+    }
+}
@@ -10,10 +10,14 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class Chromosome {
 
-    private final int id;
+    private static final IdAllocator IDS = new IdAllocator(1, IdAllocator.BLOCK);
+
+    private long id;
     private final int[] geneList;
-    private final Generation generation;
+    private Generation generation;
     private int fitness;
+    private volatile long[] packedGenes;
+    private long origin;
 
     /**
      * Constructor with a existent gene list
@@ -21,12 +25,37 @@ public class Chromosome {
      * @param geneList
      */
     public Chromosome(Generation generation, int[] geneList) {
-        id = NextId.nextId();
+        id = IDS.next();
         this.generation = generation;
         this.geneList = geneList;
         updateFitness();
     }
 
+    /**
+     * Reuse a chromosome of the pool with a new genome and a new id
+     * @param generation
+     * @param packedGenes genes of the new genome, kept as the packed genes
+     * @param bits bits per gene
+     * @see ChromosomePool
+     */
+    protected void reset(Generation generation, long[] packedGenes, int bits) {
+        id = IDS.next();
+        this.generation = generation;
+        PackedGenes.unpack(packedGenes, geneList, bits);
+        this.packedGenes = packedGenes;
+        origin = 0;
+        updateFitness();
+    }
+
+    /**
+     * If the chromosome can be reused in a generation
+     * @param generation
+     * @return
+     */
+    protected boolean canReset(Generation generation) {
+        return geneList.length == generation.getChromosomeSize();
+    }
+
     /**
      * Update the fitness value
      */
@@ -36,9 +65,11 @@ public class Chromosome {
 
     /**
      * Do the mutation
+     * @return number of mutated genes
      */
-    public void mutation() {
+    public int mutation() {
         ThreadLocalRandom r = ThreadLocalRandom.current();
+        int mutated = 0;
         for (int i = 0; i < geneList.length; i++) {
             double chance = r.nextDouble();
             if (chance >= generation.getMutation()) {
@@ -50,7 +81,10 @@ public class Chromosome {
                 mut = r.nextInt(generation.getGeneLimit());
             } while (mut == geneList[i]);
             geneList[i] = mut;
+            packedGenes = null;
+            mutated++;
         }
+        return mutated;
     }
 
     /**
@@ -61,6 +95,14 @@ public class Chromosome {
         return fitness;
     }
 
+    /**
+     * Values maximized by the multi-objective mode, only the fitness by default
+     * @return
+     */
+    public int[] getObjectives() {
+        return new int[]{getFitness()};
+    }
+
     /**
      * Gene list as a stream for a unique use
      * @return
@@ -69,6 +111,20 @@ public class Chromosome {
         return geneList;
     }
 
+    /**
+     * Gene list packed in longs, built once and kept until a mutation
+     * @return
+     * @see PackedGenes
+     */
+    public long[] getPackedGenes() {
+        long[] packed = packedGenes;
+        if (packed == null) {
+            packed = PackedGenes.pack(geneList, PackedGenes.bitsPerGene(generation.getGeneLimit()));
+            packedGenes = packed;
+        }
+        return packed;
+    }
+
     /**
      * Return a gene in the index position
      * @param index
@@ -86,10 +142,42 @@ public class Chromosome {
         return geneList.length;
     }
 
-    public int getId() {
+    public long getId() {
         return id;
     }
 
+    /**
+     * Id of the parent that gave the first genes, 0 when it was not a crossover
+     * @return
+     */
+    public long getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Id of the parent that gave the first genes
+     * @param origin
+     */
+    void setOrigin(long origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * The generation of the chromosome
+     * @return
+     */
+    public Generation getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Move the chromosome to a new generation when it survives
+     * @param generation
+     */
+    void setGeneration(Generation generation) {
+        this.generation = generation;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
@@ -103,15 +191,4 @@ public class Chromosome {
         stringBuilder.append("]");
         return stringBuilder.toString();
     }
-
-    private static class NextId {
-        private static int LAST_ID = 0;
-
-        public synchronized static int nextId() {
-            LAST_ID++;
-            return LAST_ID;
-        }
-
-
-    }
 }
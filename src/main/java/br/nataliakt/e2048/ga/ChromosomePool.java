@@ -0,0 +1,95 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Chromosomes of old generations kept to be reused as children
+ * A generation gives back the chromosomes that did not survive, and the next children
+ * are reset with their new genes instead of being built, so the gene lists (and the boards
+ * of the games) are not garbage at every generation
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class ChromosomePool {
+
+    public static final int CAPACITY = 4096;
+
+    private final int capacity;
+    private final ArrayDeque<Chromosome> free; // The newest first
+    private long reused;
+    private long released;
+
+    /**
+     * Constructor with the default capacity
+     */
+    public ChromosomePool() {
+        this(CAPACITY);
+    }
+
+    /**
+     * Constructor with the number of chromosomes kept
+     * @param capacity
+     */
+    public ChromosomePool(int capacity) {
+        assert capacity > 0;
+        this.capacity = capacity;
+        free = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * The newest chromosome of a class that can be reused in a generation
+     * The others are kept for a later generation (a game still running, another board size), and
+     * the oldest ones leave the pool when it is full
+     * @param classObject
+     * @param generation
+     * @return null when there is none
+     */
+    synchronized Chromosome acquire(Class<? extends Chromosome> classObject, Generation<?> generation) {
+        for (Iterator<Chromosome> iterator = free.iterator(); iterator.hasNext(); ) {
+            Chromosome chromosome = iterator.next();
+            if (chromosome.getClass() == classObject && chromosome.canReset(generation)) {
+                iterator.remove();
+                reused++;
+                return chromosome;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Keep a chromosome that is not used any more, the oldest one is dropped when the pool is full
+     * @param chromosome
+     */
+    public synchronized void release(Chromosome chromosome) {
+        released++;
+        if (free.size() == capacity) {
+            free.pollLast();
+        }
+        free.addFirst(chromosome);
+    }
+
+    /**
+     * Number of chromosomes kept
+     * @return
+     */
+    public synchronized int size() {
+        return free.size();
+    }
+
+    /**
+     * Number of children that were reused chromosomes
+     * @return
+     */
+    public synchronized long getReused() {
+        return reused;
+    }
+
+    /**
+     * Number of chromosomes given back
+     * @return
+     */
+    public synchronized long getReleased() {
+        return released;
+    }
+}
@@ -0,0 +1,24 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Operator that builds two children from the packed genes of two parents
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see PackedGenes
+ */
+public interface CrossoverOperator {
+
+    /**
+     * Fill the packed genes of the children
+     * @param mom packed genes of the first parent
+     * @param dad packed genes of the second parent
+     * @param child1 empty packed genes of the first child
+     * @param child2 empty packed genes of the second child
+     * @param size number of genes
+     * @param bits bits per gene
+     * @param random
+     */
+    void crossover(long[] mom, long[] dad, long[] child1, long[] child2, int size, int bits, Random random);
+}
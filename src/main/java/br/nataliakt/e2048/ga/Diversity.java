@@ -0,0 +1,139 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Diversity of a population, to see when it has collapsed
+ * The distance and the entropy are estimated with a sample, so the cost does not grow
+ * with the square of the population
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class Diversity {
+
+    public static final int SAMPLES = 1024;
+
+    private final double distance;
+    private final double entropy;
+    private final double distinct;
+
+    /**
+     * Constructor with the measures
+     * @param distance mean Hamming distance between two chromosomes, divided by the size
+     * @param entropy mean entropy of the loci, divided by the entropy of a uniform gene
+     * @param distinct part of the chromosomes with a distinct gene list
+     */
+    public Diversity(double distance, double entropy, double distinct) {
+        this.distance = distance;
+        this.entropy = entropy;
+        this.distinct = distinct;
+    }
+
+    /**
+     * Measure a population
+     * @param chromosomes
+     * @param geneLimit
+     * @param samples pairs compared and chromosomes counted by locus
+     * @param random
+     * @return
+     */
+    public static Diversity of(List<? extends Chromosome> chromosomes, int geneLimit, int samples, Random random) {
+        int n = chromosomes.size();
+        if (n == 0) {
+            return new Diversity(0, 0, 0);
+        }
+        int size = chromosomes.get(0).size();
+        int bits = PackedGenes.bitsPerGene(geneLimit);
+
+        long differences = 0;
+        if (n > 1) {
+            for (int s = 0; s < samples; s++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n - 1);
+                if (b >= a) {
+                    b++;
+                }
+                differences += PackedGenes.distance(chromosomes.get(a).getPackedGenes(),
+                        chromosomes.get(b).getPackedGenes(), bits);
+            }
+        }
+        double distance = n > 1 ? differences / ((double) samples * size) : 0;
+
+        int counted = Math.min(n, samples);
+        int[] counts = new int[size * geneLimit];
+        for (int s = 0; s < counted; s++) {
+            Chromosome chromosome = chromosomes.get(counted == n ? s : random.nextInt(n));
+            int[] geneList = chromosome.getGeneList();
+            for (int g = 0; g < size; g++) {
+                counts[g * geneLimit + geneList[g]]++;
+            }
+        }
+        double entropy = 0;
+        if (geneLimit > 1) {
+            for (int g = 0; g < size; g++) {
+                for (int v = 0; v < geneLimit; v++) {
+                    int count = counts[g * geneLimit + v];
+                    if (count > 0) {
+                        double p = count / (double) counted;
+                        entropy -= p * Math.log(p);
+                    }
+                }
+            }
+            entropy /= size * Math.log(geneLimit);
+        }
+
+        long[] hashes = new long[n];
+        for (int c = 0; c < n; c++) {
+            hashes[c] = hash(chromosomes.get(c).getPackedGenes());
+        }
+        Arrays.sort(hashes);
+        int unique = 1;
+        for (int c = 1; c < n; c++) {
+            if (hashes[c] != hashes[c - 1]) {
+                unique++;
+            }
+        }
+
+        return new Diversity(distance, entropy, unique / (double) n);
+    }
+
+    private static long hash(long[] packed) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (long word : packed) {
+            h = (h ^ word) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return h;
+    }
+
+    /**
+     * Mean Hamming distance between two chromosomes, from 0 to 1
+     * @return
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Mean entropy of the loci, from 0 to 1
+     * @return
+     */
+    public double getEntropy() {
+        return entropy;
+    }
+
+    /**
+     * Part of the chromosomes with a distinct gene list
+     * @return
+     */
+    public double getDistinct() {
+        return distinct;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("distance %.3f, entropy %.3f, distinct %.3f", distance, entropy, distinct);
+    }
+}
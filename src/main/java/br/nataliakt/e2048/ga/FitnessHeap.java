@@ -0,0 +1,126 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap over fitness that keeps the k biggest entries
+ * Each entry is packed in a long with the fitness in the high bits and the index in the low bits
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class FitnessHeap {
+
+    private final long[] heap;
+    private int size;
+
+    /**
+     * Constructor with the number of entries to keep
+     * @param capacity
+     */
+    public FitnessHeap(int capacity) {
+        assert capacity >= 0;
+
+        heap = new long[capacity];
+        size = 0;
+    }
+
+    /**
+     * Offer an index with its fitness, kept only if it is between the k biggest
+     * @param index
+     * @param fitness
+     */
+    public void offer(int index, int fitness) {
+        if (heap.length == 0) {
+            return;
+        }
+        long entry = pack(index, fitness);
+        if (size < heap.length) {
+            heap[size] = entry;
+            siftUp(size);
+            size++;
+        } else if (entry > heap[0]) {
+            heap[0] = entry;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Remove all the entries
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Number of entries in the heap
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The smallest fitness kept
+     * @return
+     */
+    public int minFitness() {
+        return fitness(heap[0]);
+    }
+
+    /**
+     * Indexes of the kept entries, from the biggest to the smallest fitness
+     * @return
+     */
+    public int[] indexes() {
+        long[] sorted = new long[size];
+        System.arraycopy(heap, 0, sorted, 0, size);
+        Arrays.sort(sorted);
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = index(sorted[size - 1 - i]);
+        }
+        return indexes;
+    }
+
+    private void siftUp(int i) {
+        long entry = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private void siftDown(int i) {
+        long entry = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (entry <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = entry;
+    }
+
+    private static long pack(int index, int fitness) {
+        return ((long) fitness << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    private static int fitness(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    private static int index(long entry) {
+        return (int) entry;
+    }
+}
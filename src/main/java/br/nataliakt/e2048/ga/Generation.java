@@ -1,13 +1,17 @@
 package br.nataliakt.e2048.ga;
 
+import br.nataliakt.e2048.engine.Heuristic;
 import javafx.util.Pair;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -17,12 +21,30 @@ import java.util.stream.Stream;
  */
 public class Generation <T extends Chromosome> {
 
-    private final int id;
+    public static final int BOARD_SIZE = 4;
+
+    private static final IdAllocator IDS = new IdAllocator(0, 1);
+
+    private final long id;
     private final int geneLimit;
-    private final double mutation;
+    private double mutation;
     private final int chromosomeSize;
     private List<T> chromosomeList;
     private int totalFitness;
+    private int elitism;
+    private int steadyState;
+    private SelectionStrategy selection;
+    private CrossoverOperator crossover;
+    private long spawnSeed;
+    private int boardWidth;
+    private int boardHeight;
+    private AdaptiveMutation adaptiveMutation;
+    private Diversity diversity;
+    private Lineage lineage;
+    private Heuristic heuristic;
+    private boolean multiObjective;
+    private int[] selectionFitness;
+    private ChromosomePool pool;
 
     /**
      * Constructor with a new empty chromosome list
@@ -34,12 +56,19 @@ public class Generation <T extends Chromosome> {
         assert mutation >= 0 && mutation <= 1;
         assert chromosomeSize > 0;
 
-        id = NextId.nextId();
+        id = IDS.next();
         this.geneLimit = geneLimit;
         this.mutation = mutation;
         this.chromosomeSize = chromosomeSize;
         chromosomeList = new ArrayList<>();
         totalFitness = 0;
+        elitism = 0;
+        steadyState = 0;
+        selection = new RouletteSelection();
+        crossover = new KPointCrossover(5);
+        spawnSeed = ThreadLocalRandom.current().nextLong();
+        boardWidth = BOARD_SIZE;
+        boardHeight = BOARD_SIZE;
     }
 
     /**
@@ -54,33 +83,98 @@ public class Generation <T extends Chromosome> {
         randomGeneration(generationSize, classObject);
     }
 
-    public void randomGeneration(int generationSize, Class<T> classObject) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+    public void randomGeneration(int generationSize, Class<? extends T> classObject) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         for (int c = 0; c < generationSize; c++) {
             int[] geneList = new int[chromosomeSize];
             for (int g = 0; g < chromosomeSize; g++) {
                 geneList[g] = ThreadLocalRandom.current().nextInt(geneLimit);
             }
-            T chromosome = (T) classObject.getDeclaredConstructor(Generation.class, int[].class).newInstance(this, geneList);
+            T chromosome = classObject.getDeclaredConstructor(Generation.class, int[].class).newInstance(this, geneList);
             chromosomeList.add(chromosome);
         }
+        diversity = null;
+        selectionFitness = null;
     }
 
     /**
      * Next generation
+     * The elite is carried over without a new evaluation and, in the steady state mode,
+     * only the worst chromosomes are replaced by children
+     * @return
+     */
+    public Generation<T> nextGeneration(Class<? extends T> classObject) {
+        return nextGeneration(classObject, size());
+    }
+
+    /**
+     * Build the next generation with another size
+     * The survivors are the elite, or all but the replaced ones in the steady state mode, up to the size
+     * @param classObject
+     * @param nextSize number of chromosomes of the next generation
      * @return
      */
-    public Generation nextGeneration(Class classObject) {
-        List<Pair> parents = getParents();
-        Generation next = new Generation(geneLimit, mutation, chromosomeSize);
-        // Get the new children
-        parents.stream().parallel().forEach(parent ->
+    public Generation<T> nextGeneration(Class<? extends T> classObject, int nextSize) {
+        // The games may have finished after the last measure
+        selectionFitness = null;
+        int survivors = steadyState > 0 ? Math.max(0, Math.min(size() - steadyState, nextSize))
+                : Math.min(elitism, Math.min(size(), nextSize));
+        int childrenSize = nextSize - survivors;
+        Chromosome[] population = new Chromosome[nextSize];
+        int[] slots = new int[childrenSize];
+        if (steadyState > 0 && nextSize == size()) {
+            chromosomeList.toArray(population);
+            slots = getWorst(childrenSize);
+        } else {
+            int[] elite = getBest(survivors);
+            for (int i = 0; i < survivors; i++) {
+                population[i] = chromosomeList.get(elite[i]);
+            }
+            for (int i = 0; i < childrenSize; i++) {
+                slots[i] = survivors + i;
+            }
+        }
+
+        Generation<T> next = new Generation<>(geneLimit, mutation, chromosomeSize);
+        next.elitism = elitism;
+        next.steadyState = steadyState;
+        next.selection = selection;
+        next.crossover = crossover;
+        next.spawnSeed = spawnSeed;
+        next.boardWidth = boardWidth;
+        next.boardHeight = boardHeight;
+        next.adaptiveMutation = adaptiveMutation;
+        next.lineage = lineage;
+        next.heuristic = heuristic;
+        next.multiObjective = multiObjective;
+        next.pool = pool;
+        if (adaptiveMutation != null) {
+            next.mutation = adaptiveMutation.adapt(mutation, getDiversity());
+        }
+        List<Pair> parents = getParents(childrenSize);
+        final int[] childrenSlots = slots;
+        final int[] cuts = new int[childrenSize];
+        final int[] mutations = new int[childrenSize];
+        final long[] others = new long[childrenSize];
+        int bits = PackedGenes.bitsPerGene(geneLimit);
+        // Get the new children, each pair writes only its own slots
+        IntStream.range(0, parents.size()).parallel().forEach(p ->
                 {
+                    Pair parent = parents.get(p);
                     try {
-                        List<Chromosome> chromosomes = chrossover(
-                                (T) parent.getKey(), (T) parent.getValue(), classObject);
-                        next.addAll(chromosomes);
-                        for (Chromosome chromosome : chromosomes) {
-                            chromosome.mutation();
+                        Chromosome mom = (Chromosome) parent.getKey();
+                        Chromosome dad = (Chromosome) parent.getValue();
+                        List<Chromosome> chromosomes = next.chrossover((T) mom, (T) dad, classObject);
+                        for (int c = 0; c < chromosomes.size() && p * 2 + c < childrenSize; c++) {
+                            Chromosome chromosome = chromosomes.get(c);
+                            int child = p * 2 + c;
+                            if (lineage != null) {
+                                Chromosome origin = c == 0 ? mom : dad;
+                                cuts[child] = PackedGenes.commonPrefix(chromosome.getPackedGenes(),
+                                        origin.getPackedGenes(), chromosomeSize, bits);
+                                others[child] = c == 0 ? dad.getId() : mom.getId();
+                            }
+                            mutations[child] = chromosome.mutation();
+                            population[childrenSlots[child]] = chromosome;
                         }
                     } catch (NoSuchMethodException e) {
                         e.printStackTrace();
@@ -94,52 +188,123 @@ public class Generation <T extends Chromosome> {
                 }
         );
 
+        for (Chromosome chromosome : population) {
+            chromosome.setGeneration(next);
+        }
+        if (lineage != null) {
+            for (int child = 0; child < childrenSize; child++) {
+                Chromosome chromosome = population[childrenSlots[child]];
+                lineage.record(chromosome.getId(), next.id, chromosome.getOrigin(), others[child],
+                        cuts[child], mutations[child]);
+            }
+        }
+        next.addAll(Arrays.asList(population));
         return next;
     }
 
+    /**
+     * Indexes of the best chromosomes, from the biggest fitness
+     * @param count
+     * @return
+     */
+    protected int[] getBest(int count) {
+        int[] fitness = getSelectionFitness();
+        FitnessHeap heap = new FitnessHeap(count);
+        for (int i = 0; i < fitness.length; i++) {
+            heap.offer(i, fitness[i]);
+        }
+        return heap.indexes();
+    }
+
+    /**
+     * Indexes of the worst chromosomes, from the smallest fitness
+     * @param count
+     * @return
+     */
+    protected int[] getWorst(int count) {
+        int[] fitness = getSelectionFitness();
+        FitnessHeap heap = new FitnessHeap(count);
+        for (int i = 0; i < fitness.length; i++) {
+            heap.offer(i, -fitness[i]);
+        }
+        return heap.indexes();
+    }
+
     /**
      * Make two children with the parents feature
      * @param mom
      * @param dad
      * @return
      */
-    protected List<Chromosome> chrossover(Chromosome mom, Chromosome dad, Class classObject) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-        ThreadLocalRandom r = ThreadLocalRandom.current();
-        int[] children1 = new int[chromosomeSize];
-        int[] children2 = new int[chromosomeSize];
-        int nCuts = 5;
-        int[] cut = new int[nCuts];
-        for (int i = 0; i < nCuts; i++) {
-            cut[i] = r.nextInt(1, mom.size() - 2);
+    protected List<Chromosome> chrossover(Chromosome mom, Chromosome dad, Class<? extends Chromosome> classObject) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        int bits = PackedGenes.bitsPerGene(geneLimit);
+        long[] packed1 = new long[PackedGenes.words(chromosomeSize, bits)];
+        long[] packed2 = new long[packed1.length];
+        crossover.crossover(mom.getPackedGenes(), dad.getPackedGenes(), packed1, packed2,
+                chromosomeSize, bits, ThreadLocalRandom.current());
+        T chromosome1 = create(classObject, packed1, bits);
+        T chromosome2 = create(classObject, packed2, bits);
+        chromosome1.setOrigin(mom.getId());
+        chromosome2.setOrigin(dad.getId());
+
+        return Arrays.asList(chromosome1, chromosome2);
+    }
+
+    /**
+     * A chromosome of the pool with the new genes, or a new one when the pool has none
+     * @param classObject
+     * @param packed
+     * @param bits
+     * @return
+     */
+    private T create(Class<? extends Chromosome> classObject, long[] packed, int bits) throws NoSuchMethodException,
+            IllegalAccessException, InvocationTargetException, InstantiationException {
+        Chromosome recycled = pool == null ? null : pool.acquire(classObject, this);
+        if (recycled != null) {
+            recycled.reset(this, packed, bits);
+            return (T) recycled;
         }
-        Arrays.sort(cut);
+        return (T) classObject.getDeclaredConstructor(Generation.class, int[].class)
+                .newInstance(this, PackedGenes.unpack(packed, chromosomeSize, bits));
+    }
 
-        for (int i = -1; i < nCuts; i++) {
-            int initial = 0;
-            int limit = mom.size();
-            if (i != -1) {
-                initial = cut[i];
-            }
-            if (i != nCuts - 1) {
-                limit = cut[i + 1];
-            }
-            for (int c = initial; c < limit; c++) {
-                if (i % 2 == 0) {
-                    children1[c] = mom.get(c);
-                    children2[c] = dad.get(c);
-                } else {
-                    children2[c] = mom.get(c);
-                    children1[c] = dad.get(c);
-                }
+    /**
+     * Give back to the pool the chromosomes that did not survive to the next generation
+     * It must run when nothing uses this generation any more, like the screen or the stats
+     */
+    public void recycle() {
+        if (pool == null) {
+            return;
+        }
+        for (T chromosome : chromosomeList) {
+            // The survivors were moved to the next generation
+            if (chromosome.getGeneration() == this) {
+                pool.release(chromosome);
             }
         }
+    }
 
-        T chromosome1 = (T) classObject.getDeclaredConstructor(Generation.class, int[].class)
-                .newInstance(this, children1);
-        T chromosome2 = (T) classObject.getDeclaredConstructor(Generation.class, int[].class)
-                .newInstance(this, children2);
-
-        return Arrays.asList(chromosome1, chromosome2);
+    /**
+     * Two mutated children of a pair, bound to this generation
+     * Used by the evolution without generations, the parents can come from any pool
+     * @param mom
+     * @param dad
+     * @param classObject
+     * @return
+     */
+    public List<Chromosome> breed(Chromosome mom, Chromosome dad, Class<? extends Chromosome> classObject) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
+        List<Chromosome> children = chrossover(mom, dad, classObject);
+        int bits = PackedGenes.bitsPerGene(geneLimit);
+        for (int c = 0; c < children.size(); c++) {
+            Chromosome child = children.get(c);
+            Chromosome origin = c == 0 ? mom : dad;
+            int cut = PackedGenes.commonPrefix(child.getPackedGenes(), origin.getPackedGenes(), chromosomeSize, bits);
+            int mutations = child.mutation();
+            if (lineage != null) {
+                lineage.record(child.getId(), id, origin.getId(), c == 0 ? dad.getId() : mom.getId(), cut, mutations);
+            }
+        }
+        return children;
     }
 
     /**
@@ -147,14 +312,41 @@ public class Generation <T extends Chromosome> {
      * @return
      */
     protected List<Pair> getParents() {
+        return getParents(chromosomeList.size());
+    }
+
+    /**
+     * Random parents to build a number of children
+     * A pair is not repeated while the population has enough different pairs
+     * @param childrenSize
+     * @return
+     */
+    protected List<Pair> getParents(int childrenSize) {
         updateTotalFitness();
         List<Pair> parents = new ArrayList<>();
-        do {
-            Pair newParent = new Pair(getRouletteRandom(), getRouletteRandom());
-            if (isNewParentValid(newParent, parents)) {
-                parents.add(newParent);
+        int pairs = (childrenSize + 1) / 2;
+        if (pairs == 0) {
+            return parents;
+        }
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        SelectionStrategy.Selector selector = selection.prepare(getSelectionFitness());
+        int[] selected = selector.select(pairs * 2, r);
+        Set<Long> used = new HashSet<>();
+        int attemptsLimit = pairs * 16 + 64;
+        for (int attempt = 0; parents.size() < pairs; attempt++) {
+            int mom, dad;
+            if (attempt < pairs) {
+                mom = selected[attempt * 2];
+                dad = selected[attempt * 2 + 1];
+            } else {
+                mom = selector.select(r);
+                dad = selector.select(r);
+            }
+            if (attempt < attemptsLimit && !isNewParentValid(mom, dad, used)) {
+                continue;
             }
-        } while (parents.size() * 2 < chromosomeList.size());
+            parents.add(new Pair(chromosomeList.get(mom), chromosomeList.get(dad)));
+        }
 
         return parents;
     }
@@ -164,44 +356,95 @@ public class Generation <T extends Chromosome> {
      * @return
      */
     protected Chromosome getRouletteRandom() {
-        double p = ThreadLocalRandom.current().nextDouble();
-
-        Chromosome parent = chromosomeList.get(chromosomeList.size() - 1);
-        double total = 0;
-        for (int i = 0; i < chromosomeList.size(); i++) {
-            Chromosome c = chromosomeList.get(i);
-            double value = c.getFitness() / (double) totalFitness;
-            total += value;
-            if (total >= p) {
-                parent = c;
-                break;
+        int index = new RouletteSelection().prepare(getFitnessArray()).select(ThreadLocalRandom.current());
+        return chromosomeList.get(index);
+    }
+
+    /**
+     * Validade if the new pair can be included on the parents list, marking it as used
+     * @param mom index of the first parent
+     * @param dad index of the second parent
+     * @param used pairs already in the parents list
+     * @return
+     */
+    protected boolean isNewParentValid(int mom, int dad, Set<Long> used) {
+        if (mom == dad) {
+            return false;
+        }
+        long pair = ((long) Math.min(mom, dad) << 32) | Math.max(mom, dad);
+        return used.add(pair);
+    }
+
+    /**
+     * Fitness of each chromosome, by index
+     * @return
+     */
+    protected int[] getFitnessArray() {
+        int[] fitness = new int[chromosomeList.size()];
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = chromosomeList.get(i).getFitness();
+        }
+        return fitness;
+    }
+
+    /**
+     * Fitness used to select the parents and the survivors, by index
+     * In the multi-objective mode it is the position by the crowded comparison of NSGA-II,
+     * from the population size for the first down to 1 for the last
+     * @return
+     */
+    protected int[] getSelectionFitness() {
+        if (!multiObjective) {
+            return getFitnessArray();
+        }
+        int[] fitness = selectionFitness;
+        if (fitness == null) {
+            int n = chromosomeList.size();
+            int[] objectives = getObjectivesArray();
+            int m = n == 0 ? 1 : objectives.length / n;
+            int[] ranks = ParetoSort.ranks(objectives, n, m);
+            int[] order = ParetoSort.order(ranks, ParetoSort.crowding(objectives, n, m, ranks));
+            fitness = new int[n];
+            for (int position = 0; position < n; position++) {
+                fitness[order[position]] = n - position;
             }
+            selectionFitness = fitness;
         }
-        return parent;
+        return fitness;
     }
 
     /**
-     * Validade if the new pair can be included on the parents list
-     * @param newParent
-     * @param parents
+     * Objectives of each chromosome packed by index
      * @return
      */
-    protected boolean isNewParentValid(Pair newParent, List<Pair> parents) {
-        boolean valid = true;
-        if (newParent.getKey().equals(newParent.getValue())) {
-            valid = false;
-            return valid;
+    private int[] getObjectivesArray() {
+        int n = chromosomeList.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        int m = chromosomeList.get(0).getObjectives().length;
+        int[] objectives = new int[n * m];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(chromosomeList.get(i).getObjectives(), 0, objectives, i * m, m);
         }
-        for(Pair parent : parents) {
-            if ((parent.getKey().equals(newParent.getKey()) &&
-                    parent.getValue().equals(newParent.getValue())) ||
-                (parent.getKey().equals(newParent.getValue()) &&
-                        parent.getValue().equals(newParent.getKey()))) {
-                valid = false;
-                break;
+        return objectives;
+    }
+
+    /**
+     * Chromosomes that no other chromosome dominates in all the objectives
+     * @return
+     */
+    public List<T> getParetoFront() {
+        int n = chromosomeList.size();
+        int[] objectives = getObjectivesArray();
+        int[] ranks = ParetoSort.ranks(objectives, n, n == 0 ? 1 : objectives.length / n);
+        List<T> front = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (ranks[i] == 0) {
+                front.add(chromosomeList.get(i));
             }
         }
-        return valid;
+        return front;
     }
 
     /**
@@ -229,6 +472,8 @@ public class Generation <T extends Chromosome> {
      */
     public void add(T chromosome) {
         chromosomeList.add(chromosome);
+        diversity = null;
+        selectionFitness = null;
         updateTotalFitness();
     }
 
@@ -238,6 +483,8 @@ public class Generation <T extends Chromosome> {
      */
     public void addAll(Collection c) {
         chromosomeList.addAll(c);
+        diversity = null;
+        selectionFitness = null;
         updateTotalFitness();
     }
 
@@ -253,7 +500,7 @@ public class Generation <T extends Chromosome> {
      * The id unique of generation
      * @return
      */
-    public int getId() {
+    public long getId() {
         return id;
     }
 
@@ -266,6 +513,23 @@ public class Generation <T extends Chromosome> {
         return chromosomeList.get(index);
     }
 
+    /**
+     * Class of the chromosomes, to breed children of the same kind
+     * @return Chromosome when the generation is empty
+     */
+    @SuppressWarnings("unchecked") // The list only holds T
+    public Class<? extends T> getChromosomeClass() {
+        return (Class<? extends T>) (chromosomeList.isEmpty() ? Chromosome.class : chromosomeList.get(0).getClass());
+    }
+
+    /**
+     * Number of genes of each chromosome
+     * @return
+     */
+    public int getChromosomeSize() {
+        return chromosomeSize;
+    }
+
     /**
      * The limit of gene representation
      * @return
@@ -282,6 +546,225 @@ public class Generation <T extends Chromosome> {
         return mutation;
     }
 
+    /**
+     * The mutation chance
+     * @param mutation
+     */
+    public void setMutation(double mutation) {
+        assert mutation >= 0 && mutation <= 1;
+        this.mutation = mutation;
+    }
+
+    /**
+     * The controller of the mutation chance
+     * @return
+     */
+    public AdaptiveMutation getAdaptiveMutation() {
+        return adaptiveMutation;
+    }
+
+    /**
+     * The controller of the mutation chance, it sets the chance of each next generation
+     * @param adaptiveMutation null to keep the same chance
+     */
+    public void setAdaptiveMutation(AdaptiveMutation adaptiveMutation) {
+        this.adaptiveMutation = adaptiveMutation;
+    }
+
+    /**
+     * The fitness of the games
+     * @return null when the fitness is the score
+     */
+    public Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * The fitness of the games, set it before creating the chromosomes
+     * @param heuristic null to use the score
+     */
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * If the parents and the survivors are chosen by the objectives of the chromosomes (NSGA-II)
+     * @return
+     */
+    public boolean isMultiObjective() {
+        return multiObjective;
+    }
+
+    /**
+     * Choose the parents and the survivors by the fronts and the crowding distance of the objectives
+     * The elitism keeps the first fronts, so a big elitism works as the selection of NSGA-II
+     * @param multiObjective false to use the fitness
+     */
+    public void setMultiObjective(boolean multiObjective) {
+        this.multiObjective = multiObjective;
+        selectionFitness = null;
+    }
+
+    /**
+     * Pool of the chromosomes reused by the next generations
+     * @return null when the children are always new
+     */
+    public ChromosomePool getPool() {
+        return pool;
+    }
+
+    /**
+     * Pool of the chromosomes reused by the next generations
+     * @param pool null to always build new children
+     */
+    public void setPool(ChromosomePool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * The store of the parents of each child
+     * @return
+     */
+    public Lineage getLineage() {
+        return lineage;
+    }
+
+    /**
+     * The store of the parents of each child, carried over to the next generations
+     * @param lineage null to not record the parents
+     */
+    public void setLineage(Lineage lineage) {
+        this.lineage = lineage;
+    }
+
+    /**
+     * Diversity of the chromosomes, measured once
+     * @return
+     */
+    public Diversity getDiversity() {
+        Diversity measured = diversity;
+        if (measured == null) {
+            measured = Diversity.of(chromosomeList, geneLimit, Diversity.SAMPLES, ThreadLocalRandom.current());
+            diversity = measured;
+        }
+        return measured;
+    }
+
+    /**
+     * Number of best chromosomes carried over to the next generation
+     * @return
+     */
+    public int getElitism() {
+        return elitism;
+    }
+
+    /**
+     * Number of best chromosomes carried over to the next generation without a new evaluation
+     * @param elitism
+     */
+    public void setElitism(int elitism) {
+        assert elitism >= 0;
+        this.elitism = elitism;
+    }
+
+    /**
+     * Number of worst chromosomes replaced in each generation, 0 to replace all
+     * @return
+     */
+    public int getSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * Number of worst chromosomes replaced in each generation, 0 to replace all
+     * When it is positive the elitism is ignored, every other chromosome survives
+     * @param steadyState
+     */
+    public void setSteadyState(int steadyState) {
+        assert steadyState >= 0;
+        this.steadyState = steadyState;
+    }
+
+    /**
+     * The strategy to select the parents
+     * @return
+     */
+    public SelectionStrategy getSelection() {
+        return selection;
+    }
+
+    /**
+     * The strategy to select the parents, roulette by default
+     * @param selection
+     */
+    public void setSelection(SelectionStrategy selection) {
+        assert selection != null;
+        this.selection = selection;
+    }
+
+    /**
+     * The operator to build the children
+     * @return
+     */
+    public CrossoverOperator getCrossover() {
+        return crossover;
+    }
+
+    /**
+     * The operator to build the children, 5 cuts by default
+     * @param crossover
+     */
+    public void setCrossover(CrossoverOperator crossover) {
+        assert crossover != null;
+        this.crossover = crossover;
+    }
+
+    /**
+     * Seed of the new numbers in the games, the same for all the generations of a run
+     * @return
+     */
+    public long getSpawnSeed() {
+        return spawnSeed;
+    }
+
+    /**
+     * Seed of the new numbers in the games, random by default
+     * Set it before creating the chromosomes
+     * @param spawnSeed
+     */
+    public void setSpawnSeed(long spawnSeed) {
+        this.spawnSeed = spawnSeed;
+    }
+
+    /**
+     * Number of columns of the game boards
+     * @return
+     */
+    public int getBoardWidth() {
+        return boardWidth;
+    }
+
+    /**
+     * Number of rows of the game boards
+     * @return
+     */
+    public int getBoardHeight() {
+        return boardHeight;
+    }
+
+    /**
+     * Size of the game boards, 4x4 by default
+     * Set it before creating the chromosomes
+     * @param boardWidth up to 16
+     * @param boardHeight up to 16
+     */
+    public void setBoardSize(int boardWidth, int boardHeight) {
+        assert boardWidth > 0 && boardWidth <= 16;
+        assert boardHeight > 0 && boardHeight <= 16;
+        this.boardWidth = boardWidth;
+        this.boardHeight = boardHeight;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
@@ -298,13 +781,4 @@ public class Generation <T extends Chromosome> {
         });
         return stringBuilder.toString();
     }
-
-    private static class NextId {
-        private static int LAST_ID = -1;
-
-        public synchronized static int nextId() {
-            LAST_ID++;
-            return LAST_ID;
-        }
-    }
 }
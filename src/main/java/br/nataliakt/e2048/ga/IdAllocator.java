@@ -0,0 +1,47 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock free allocation of long ids
+ * Each thread takes a block of ids from a shared counter and uses it alone,
+ * so the counter is touched once per block. With blocks of one id the ids are sequential
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class IdAllocator {
+
+    public static final int BLOCK = 1024;
+
+    private final AtomicLong next;
+    private final int block;
+    private final ThreadLocal<long[]> range;
+
+    /**
+     * Constructor with the first id and the size of the blocks
+     * @param first
+     * @param block ids taken by a thread at once
+     */
+    public IdAllocator(long first, int block) {
+        assert block > 0;
+        next = new AtomicLong(first);
+        this.block = block;
+        range = ThreadLocal.withInitial(() -> new long[2]);
+    }
+
+    /**
+     * A new id, never returned before
+     * @return
+     */
+    public long next() {
+        if (block == 1) {
+            return next.getAndIncrement();
+        }
+        long[] ids = range.get();
+        if (ids[0] == ids[1]) {
+            ids[0] = next.getAndAdd(block);
+            ids[1] = ids[0] + block;
+        }
+        return ids[0]++;
+    }
+}
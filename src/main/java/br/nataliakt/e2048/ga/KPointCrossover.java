@@ -0,0 +1,44 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Crossover with k random cuts, the segments between cuts alternate the parents
+ * A chromosome with less than two genes has no cut and the children are copies
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class KPointCrossover extends MaskCrossover {
+
+    private final int cuts;
+
+    /**
+     * Constructor with the number of cuts
+     * @param cuts
+     */
+    public KPointCrossover(int cuts) {
+        assert cuts > 0;
+        this.cuts = cuts;
+    }
+
+    @Override
+    protected void fillMask(long[] mask, int size, int bits, Random random) {
+        if (size < 2) {
+            return;
+        }
+        int[] cut = new int[cuts];
+        for (int i = 0; i < cuts; i++) {
+            cut[i] = 1 + random.nextInt(size - 1);
+        }
+        Arrays.sort(cut);
+        for (int i = 0; i < cuts; i += 2) {
+            int limit = i + 1 < cuts ? cut[i + 1] : size;
+            PackedGenes.setRange(mask, cut[i], limit, bits);
+        }
+    }
+
+    public int getCuts() {
+        return cuts;
+    }
+}
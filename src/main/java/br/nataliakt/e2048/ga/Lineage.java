@@ -0,0 +1,259 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Arrays;
+
+/**
+ * Parents of each child in primitive arrays, so the origin of a chromosome can be traced
+ * without keeping the old generations
+ * For each child it keeps the generation, the parent that gave the first genes (mom),
+ * the other parent (dad), the cut point (genes kept from mom before the first cut)
+ * and the number of mutated genes. Children are found by id in an open addressing table
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class Lineage {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids;
+    private long[] generations;
+    private long[] moms;
+    private long[] dads;
+    private int[] cuts;
+    private int[] mutations;
+    private int size;
+    private int[] table;
+
+    /**
+     * Constructor with an empty store
+     */
+    public Lineage() {
+        ids = new long[INITIAL_CAPACITY];
+        generations = new long[INITIAL_CAPACITY];
+        moms = new long[INITIAL_CAPACITY];
+        dads = new long[INITIAL_CAPACITY];
+        cuts = new int[INITIAL_CAPACITY];
+        mutations = new int[INITIAL_CAPACITY];
+        table = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(table, -1);
+    }
+
+    /**
+     * Record a child
+     * @param id
+     * @param generation id of the generation of the child
+     * @param mom parent that gave the first genes
+     * @param dad the other parent
+     * @param cut genes kept from mom before the first cut
+     * @param mutation number of mutated genes
+     */
+    public synchronized void record(long id, long generation, long mom, long dad, int cut, int mutation) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        generations[size] = generation;
+        moms[size] = mom;
+        dads[size] = dad;
+        cuts[size] = cut;
+        mutations[size] = mutation;
+        insert(size);
+        size++;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        moms = Arrays.copyOf(moms, capacity);
+        dads = Arrays.copyOf(dads, capacity);
+        cuts = Arrays.copyOf(cuts, capacity);
+        mutations = Arrays.copyOf(mutations, capacity);
+        table = new int[capacity * 2];
+        Arrays.fill(table, -1);
+        for (int i = 0; i < size; i++) {
+            insert(i);
+        }
+    }
+
+    private void insert(int index) {
+        int mask = table.length - 1;
+        int slot = slot(ids[index], mask);
+        while (table[slot] >= 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index;
+    }
+
+    private static int slot(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Index of a child in the arrays
+     * @param id
+     * @return -1 when it was not recorded
+     */
+    private int indexOf(long id) {
+        int mask = table.length - 1;
+        int slot = slot(id, mask);
+        int index;
+        while ((index = table[slot]) >= 0) {
+            if (ids[index] == id) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * If the chromosome was recorded as a child
+     * @param id
+     * @return
+     */
+    public synchronized boolean contains(long id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Parents of a child
+     * @param id
+     * @return mom and dad, or an empty array when it was not recorded
+     */
+    public synchronized long[] getParents(long id) {
+        int index = indexOf(id);
+        return index < 0 ? new long[0] : new long[]{moms[index], dads[index]};
+    }
+
+    /**
+     * Genes kept from mom before the first cut
+     * @param id
+     * @return -1 when it was not recorded
+     */
+    public synchronized int getCut(long id) {
+        int index = indexOf(id);
+        return index < 0 ? -1 : cuts[index];
+    }
+
+    /**
+     * Number of mutated genes
+     * @param id
+     * @return -1 when it was not recorded
+     */
+    public synchronized int getMutations(long id) {
+        int index = indexOf(id);
+        return index < 0 ? -1 : mutations[index];
+    }
+
+    /**
+     * Generation of a child
+     * @param id
+     * @return -1 when it was not recorded
+     */
+    public synchronized long getGeneration(long id) {
+        int index = indexOf(id);
+        return index < 0 ? -1 : generations[index];
+    }
+
+    /**
+     * Line of moms of a chromosome, the ones that gave its first genes
+     * @param id
+     * @return from the chromosome to the first one that is not a recorded child
+     */
+    public synchronized long[] getLine(long id) {
+        long[] line = new long[16];
+        int length = 0;
+        long current = id;
+        while (true) {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = current;
+            int index = indexOf(current);
+            if (index < 0) {
+                break;
+            }
+            current = moms[index];
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**
+     * All the ancestors of a chromosome up to a number of generations back
+     * @param id
+     * @param depth generations back, 1 for the parents
+     * @return ids without repetition, nearest generations first
+     */
+    public synchronized long[] getAncestors(long id, int depth) {
+        LongSet seen = new LongSet();
+        long[] queue = new long[16];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = id;
+        seen.add(id);
+        for (int level = 0; level < depth && head < tail; level++) {
+            int end = tail;
+            for (; head < end; head++) {
+                int index = indexOf(queue[head]);
+                if (index < 0) {
+                    continue;
+                }
+                for (long parent : new long[]{moms[index], dads[index]}) {
+                    if (parent != 0 && seen.add(parent)) {
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, tail * 2);
+                        }
+                        queue[tail++] = parent;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOfRange(queue, 1, tail);
+    }
+
+    /**
+     * Number of children recorded
+     * @return
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Set of longs with open addressing, for the ancestry walks
+     */
+    private static class LongSet {
+        private long[] keys = new long[32];
+        private boolean[] used = new boolean[32];
+        private int size;
+
+        boolean add(long key) {
+            if (size * 2 >= keys.length) {
+                long[] oldKeys = keys;
+                boolean[] oldUsed = used;
+                keys = new long[oldKeys.length * 2];
+                used = new boolean[oldKeys.length * 2];
+                size = 0;
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldUsed[i]) {
+                        add(oldKeys[i]);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+            return true;
+        }
+    }
+}
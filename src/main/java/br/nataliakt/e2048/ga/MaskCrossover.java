@@ -0,0 +1,33 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Crossover by a mask over the packed genes, the genes with the mask set are swapped
+ * The first child starts with the first parent genes while the mask is empty
+ * Blending is a branch free loop over the words, easy to vectorize
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public abstract class MaskCrossover implements CrossoverOperator {
+
+    @Override
+    public void crossover(long[] mom, long[] dad, long[] child1, long[] child2, int size, int bits, Random random) {
+        long[] mask = new long[mom.length];
+        fillMask(mask, size, bits, random);
+        for (int w = 0; w < mom.length; w++) {
+            long diff = (mom[w] ^ dad[w]) & mask[w];
+            child1[w] = mom[w] ^ diff;
+            child2[w] = dad[w] ^ diff;
+        }
+    }
+
+    /**
+     * Set all the bits of the genes to swap
+     * @param mask empty mask
+     * @param size number of genes
+     * @param bits bits per gene
+     * @param random
+     */
+    protected abstract void fillMask(long[] mask, int size, int bits, Random random);
+}
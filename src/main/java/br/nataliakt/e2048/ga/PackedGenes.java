@@ -0,0 +1,166 @@
+package br.nataliakt.e2048.ga;
+
+/**
+ * Gene lists packed in longs, each gene uses a power of two number of bits
+ * so a gene never crosses two words and the operators can work word by word
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public final class PackedGenes {
+
+    private PackedGenes() {
+    }
+
+    /**
+     * Bits used by each gene
+     * @param geneLimit
+     * @return 1, 2, 4, 8, 16 or 32
+     */
+    public static int bitsPerGene(int geneLimit) {
+        int needed = Math.max(1, 32 - Integer.numberOfLeadingZeros(geneLimit - 1));
+        return Integer.highestOneBit(needed) == needed ? needed : Integer.highestOneBit(needed) << 1;
+    }
+
+    /**
+     * Number of longs to pack a gene list
+     * @param size number of genes
+     * @param bits bits per gene
+     * @return
+     */
+    public static int words(int size, int bits) {
+        int genesPerWord = 64 / bits;
+        return (size + genesPerWord - 1) / genesPerWord;
+    }
+
+    /**
+     * Pack a gene list
+     * @param geneList
+     * @param bits bits per gene
+     * @return
+     */
+    public static long[] pack(int[] geneList, int bits) {
+        long[] packed = new long[words(geneList.length, bits)];
+        int genesPerWord = 64 / bits;
+        long geneMask = geneMask(bits);
+        for (int i = 0; i < geneList.length; i++) {
+            packed[i / genesPerWord] |= (geneList[i] & geneMask) << ((i % genesPerWord) * bits);
+        }
+        return packed;
+    }
+
+    /**
+     * Unpack a gene list
+     * @param packed
+     * @param size number of genes
+     * @param bits bits per gene
+     * @return
+     */
+    public static int[] unpack(long[] packed, int size, int bits) {
+        int[] geneList = new int[size];
+        unpack(packed, geneList, bits);
+        return geneList;
+    }
+
+    /**
+     * Unpack a gene list into an existing one
+     * @param packed
+     * @param geneList receives as many genes as its length
+     * @param bits bits per gene
+     */
+    public static void unpack(long[] packed, int[] geneList, int bits) {
+        int genesPerWord = 64 / bits;
+        long geneMask = geneMask(bits);
+        for (int i = 0; i < geneList.length; i++) {
+            geneList[i] = (int) ((packed[i / genesPerWord] >>> ((i % genesPerWord) * bits)) & geneMask);
+        }
+    }
+
+    /**
+     * Return the gene in the index position
+     * @param packed
+     * @param index
+     * @param bits bits per gene
+     * @return
+     */
+    public static int get(long[] packed, int index, int bits) {
+        int genesPerWord = 64 / bits;
+        return (int) ((packed[index / genesPerWord] >>> ((index % genesPerWord) * bits)) & geneMask(bits));
+    }
+
+    /**
+     * Set all the bits of the genes between from (inclusive) and to (exclusive)
+     * @param packed
+     * @param from
+     * @param to
+     * @param bits bits per gene
+     */
+    public static void setRange(long[] packed, int from, int to, int bits) {
+        int fromBit = from * bits;
+        int toBit = to * bits;
+        while (fromBit < toBit) {
+            int word = fromBit >>> 6;
+            int end = Math.min(toBit, (word + 1) << 6);
+            int length = end - fromBit;
+            long mask = length == 64 ? -1L : ((1L << length) - 1) << (fromBit & 63);
+            packed[word] |= mask;
+            fromBit = end;
+        }
+    }
+
+    /**
+     * Number of genes from the start that are equal in both lists
+     * @param a
+     * @param b
+     * @param size number of genes
+     * @param bits bits per gene
+     * @return
+     */
+    public static int commonPrefix(long[] a, long[] b, int size, int bits) {
+        int words = Math.min(a.length, b.length);
+        for (int w = 0; w < words; w++) {
+            long diff = a[w] ^ b[w];
+            if (diff != 0) {
+                int prefix = (w * 64 + Long.numberOfTrailingZeros(diff)) / bits;
+                return Math.min(prefix, size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Number of genes that are different in both lists, the Hamming distance by gene
+     * @param a
+     * @param b
+     * @param bits bits per gene
+     * @return
+     */
+    public static int distance(long[] a, long[] b, int bits) {
+        long low = lowBits(bits);
+        int distance = 0;
+        for (int w = 0; w < a.length; w++) {
+            long diff = a[w] ^ b[w];
+            for (int shift = 1; shift < bits; shift <<= 1) {
+                diff |= diff >>> shift;
+            }
+            distance += Long.bitCount(diff & low);
+        }
+        return distance;
+    }
+
+    /**
+     * Mask with the lowest bit of each gene set
+     * @param bits bits per gene
+     * @return
+     */
+    public static long lowBits(int bits) {
+        long low = 0;
+        for (int shift = 0; shift < 64; shift += bits) {
+            low |= 1L << shift;
+        }
+        return low;
+    }
+
+    private static long geneMask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+}
@@ -0,0 +1,344 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Arrays;
+
+/**
+ * Non-dominated sorting and crowding distance of NSGA-II over primitive arrays
+ * The objectives are maximized and packed by chromosome: the objective k of the
+ * chromosome i is objectives[i * m + k]. Two objectives are sorted in O(N log N) by
+ * a sweep, three in O(N log^2 N) by divide and conquer, more by pairwise comparisons
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public final class ParetoSort {
+
+    private ParetoSort() {
+    }
+
+    /**
+     * Front of each chromosome, 0 for the non-dominated ones
+     * @param objectives
+     * @param count number of chromosomes
+     * @param m number of objectives
+     * @return
+     */
+    public static int[] ranks(int[] objectives, int count, int m) {
+        assert m > 0 && objectives.length >= count * m;
+        int[] ranks = new int[count];
+        if (count == 0) {
+            return ranks;
+        }
+        // Sorted by the objectives from the biggest, a chromosome is dominated only by the ones before it
+        int[] sorted = descending(objectives, count, m);
+        // Equal chromosomes do not dominate each other, only the first of a group is sorted
+        int[] order = new int[count];
+        int[] first = new int[count];
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            int index = sorted[i];
+            if (distinct > 0 && equal(objectives, m, order[distinct - 1], index)) {
+                first[index] = order[distinct - 1];
+            } else {
+                first[index] = index;
+                order[distinct++] = index;
+            }
+        }
+        order = Arrays.copyOf(order, distinct);
+
+        if (m == 1) {
+            for (int i = 0; i < distinct; i++) {
+                ranks[order[i]] = i;
+            }
+        } else if (m == 2) {
+            sweep(objectives, order, ranks);
+        } else if (m == 3) {
+            new Dominance3(objectives, order, ranks).solve(0, distinct);
+        } else {
+            pairwise(objectives, m, order, ranks);
+        }
+        for (int i = 0; i < count; i++) {
+            ranks[i] = ranks[first[i]];
+        }
+        return ranks;
+    }
+
+    /**
+     * Indexes sorted by the objectives from the biggest, the first objective first
+     * Each objective sorts the runs that were equal in the previous ones
+     */
+    private static int[] descending(int[] objectives, int count, int m) {
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = i;
+        }
+        sortRuns(objectives, m, 0, sorted, 0, count, new long[count]);
+        return sorted;
+    }
+
+    private static void sortRuns(int[] objectives, int m, int k, int[] sorted, int from, int to, long[] work) {
+        if (k == m || to - from < 2) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            work[i] = ((long) ~objectives[sorted[i] * m + k] << 32) | sorted[i];
+        }
+        Arrays.sort(work, from, to);
+        for (int i = from; i < to; i++) {
+            sorted[i] = (int) work[i];
+        }
+        int run = from;
+        for (int i = from + 1; i <= to; i++) {
+            if (i == to || objectives[sorted[i] * m + k] != objectives[sorted[run] * m + k]) {
+                sortRuns(objectives, m, k + 1, sorted, run, i, work);
+                run = i;
+            }
+        }
+    }
+
+    private static boolean equal(int[] objectives, int m, int a, int b) {
+        for (int k = 0; k < m; k++) {
+            if (objectives[a * m + k] != objectives[b * m + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Two objectives: the last chromosome of each front has the biggest second objective of the front,
+     * and these values fall from a front to the next, so the front is found by binary search
+     */
+    private static void sweep(int[] objectives, int[] order, int[] ranks) {
+        int[] last = new int[order.length];
+        int fronts = 0;
+        for (int index : order) {
+            int value = objectives[index * 2 + 1];
+            int low = 0;
+            int high = fronts;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (last[middle] >= value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            last[low] = value;
+            if (low == fronts) {
+                fronts++;
+            }
+            ranks[index] = low;
+        }
+    }
+
+    /**
+     * Three objectives: the rank of a chromosome is one more than the biggest rank of the ones that
+     * dominate it. The first half of the order is solved, then it updates the second half with a
+     * sweep over the second objective and a Fenwick tree of maximums over the third
+     */
+    private static final class Dominance3 {
+        private final int[] objectives;
+        private final int[] order;
+        private final int[] ranks;
+        private final int[] thirdRank;
+        private final int[] tree;
+        private final int[] dominated;
+
+        Dominance3(int[] objectives, int[] order, int[] ranks) {
+            this.objectives = objectives;
+            this.order = order;
+            this.ranks = ranks;
+            int[] thirds = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                thirds[i] = objectives[order[i] * 3 + 2];
+            }
+            int[] sorted = thirds.clone();
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            // Position in the tree counted from the biggest third objective, starting in 1
+            thirdRank = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                thirdRank[i] = distinct - Arrays.binarySearch(sorted, 0, distinct, thirds[i]);
+            }
+            tree = new int[distinct + 1];
+            dominated = new int[order.length];
+        }
+
+        void solve(int from, int to) {
+            if (to - from == 1) {
+                ranks[order[from]] = dominated[from];
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            solve(from, middle);
+            long[] left = bySecond(from, middle);
+            long[] right = bySecond(middle, to);
+            int l = 0;
+            for (long entry : right) {
+                int position = (int) entry;
+                int second = second(position);
+                while (l < left.length && second((int) left[l]) >= second) {
+                    int q = (int) left[l++];
+                    update(thirdRank[q], ranks[order[q]] + 1);
+                }
+                dominated[position] = Math.max(dominated[position], query(thirdRank[position]));
+            }
+            for (int i = 0; i < l; i++) {
+                clear(thirdRank[(int) left[i]]);
+            }
+            solve(middle, to);
+        }
+
+        private int second(int position) {
+            return objectives[order[position] * 3 + 1];
+        }
+
+        /**
+         * Positions of a range sorted by the second objective, from the biggest
+         */
+        private long[] bySecond(int from, int to) {
+            long[] entries = new long[to - from];
+            for (int p = from; p < to; p++) {
+                entries[p - from] = ((long) ~second(p) << 32) | p;
+            }
+            Arrays.sort(entries);
+            return entries;
+        }
+
+        private void update(int i, int value) {
+            for (; i < tree.length; i += i & -i) {
+                tree[i] = Math.max(tree[i], value);
+            }
+        }
+
+        private int query(int i) {
+            int max = 0;
+            for (; i > 0; i -= i & -i) {
+                max = Math.max(max, tree[i]);
+            }
+            return max;
+        }
+
+        private void clear(int i) {
+            for (; i < tree.length; i += i & -i) {
+                tree[i] = 0;
+            }
+        }
+    }
+
+    private static void pairwise(int[] objectives, int m, int[] order, int[] ranks) {
+        for (int i = 0; i < order.length; i++) {
+            int rank = 0;
+            for (int j = 0; j < i; j++) {
+                if (ranks[order[j]] + 1 > rank && dominates(objectives, m, order[j], order[i])) {
+                    rank = ranks[order[j]] + 1;
+                }
+            }
+            ranks[order[i]] = rank;
+        }
+    }
+
+    private static boolean dominates(int[] objectives, int m, int a, int b) {
+        for (int k = 0; k < m; k++) {
+            if (objectives[a * m + k] < objectives[b * m + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Crowding distance of each chromosome inside its front
+     * The first and the last of a front by each objective get an infinite distance
+     * @param objectives
+     * @param count number of chromosomes
+     * @param m number of objectives
+     * @param ranks
+     * @return
+     */
+    public static double[] crowding(int[] objectives, int count, int m, int[] ranks) {
+        double[] distance = new double[count];
+        int[] fronts = byFront(ranks);
+        long[] entries = new long[count];
+        int start = 0;
+        while (start < count) {
+            int end = start;
+            while (end < count && ranks[fronts[end]] == ranks[fronts[start]]) {
+                end++;
+            }
+            for (int k = 0; k < m; k++) {
+                for (int e = start; e < end; e++) {
+                    entries[e] = ((long) objectives[fronts[e] * m + k] << 32) | fronts[e];
+                }
+                Arrays.sort(entries, start, end);
+                long lowest = entries[start] >> 32;
+                long highest = entries[end - 1] >> 32;
+                distance[(int) entries[start]] = Double.POSITIVE_INFINITY;
+                distance[(int) entries[end - 1]] = Double.POSITIVE_INFINITY;
+                if (highest > lowest) {
+                    for (int e = start + 1; e < end - 1; e++) {
+                        distance[(int) entries[e]] += ((entries[e + 1] >> 32) - (entries[e - 1] >> 32))
+                                / (double) (highest - lowest);
+                    }
+                }
+            }
+            start = end;
+        }
+        return distance;
+    }
+
+    /**
+     * Indexes grouped by front, by counting
+     */
+    private static int[] byFront(int[] ranks) {
+        int fronts = 0;
+        for (int rank : ranks) {
+            fronts = Math.max(fronts, rank + 1);
+        }
+        int[] starts = new int[fronts + 1];
+        for (int rank : ranks) {
+            starts[rank + 1]++;
+        }
+        for (int f = 0; f < fronts; f++) {
+            starts[f + 1] += starts[f];
+        }
+        int[] grouped = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            grouped[starts[ranks[i]]++] = i;
+        }
+        return grouped;
+    }
+
+    /**
+     * Indexes by the crowded comparison: smaller front first, bigger distance first inside a front
+     * @param ranks
+     * @param crowding
+     * @return
+     */
+    public static int[] order(int[] ranks, double[] crowding) {
+        int[] order = byFront(ranks);
+        long[] entries = new long[order.length];
+        int start = 0;
+        while (start < order.length) {
+            int end = start;
+            while (end < order.length && ranks[order[end]] == ranks[order[start]]) {
+                end++;
+            }
+            // The bits of a positive float keep its order, the complement sorts from the biggest
+            for (int e = start; e < end; e++) {
+                entries[e] = ((long) ~Float.floatToIntBits((float) crowding[order[e]]) << 32) | order[e];
+            }
+            Arrays.sort(entries, start, end);
+            for (int e = start; e < end; e++) {
+                order[e] = (int) entries[e];
+            }
+            start = end;
+        }
+        return order;
+    }
+}
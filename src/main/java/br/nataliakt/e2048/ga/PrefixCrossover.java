@@ -0,0 +1,37 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Crossover with one cut after a minimum prefix, each child keeps the whole prefix of a parent
+ * A game is a sequence of moviments, so the kept prefix reproduces the same start of the game
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class PrefixCrossover extends MaskCrossover {
+
+    private final double prefix;
+
+    /**
+     * Constructor with the minimum prefix
+     * @param prefix part of the genes always kept, between 0 and 1
+     */
+    public PrefixCrossover(double prefix) {
+        assert prefix >= 0 && prefix <= 1;
+        this.prefix = prefix;
+    }
+
+    @Override
+    protected void fillMask(long[] mask, int size, int bits, Random random) {
+        int minCut = Math.max(1, (int) Math.ceil(prefix * size));
+        if (minCut >= size) {
+            return;
+        }
+        int cut = minCut + random.nextInt(size - minCut);
+        PackedGenes.setRange(mask, cut, size, bits);
+    }
+
+    public double getPrefix() {
+        return prefix;
+    }
+}
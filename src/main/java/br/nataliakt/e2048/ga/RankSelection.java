@@ -0,0 +1,61 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Arrays;
+
+/**
+ * Linear rank selection, the chance depends only on the position in the ranking
+ * It keeps the selection pressure when the fitness values converge
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class RankSelection implements SelectionStrategy {
+
+    private final double pressure;
+
+    /**
+     * Constructor with the selection pressure
+     * @param pressure expected children of the best chromosome, between 1 and 2
+     */
+    public RankSelection(double pressure) {
+        assert pressure >= 1 && pressure <= 2;
+        this.pressure = pressure;
+    }
+
+    @Override
+    public Selector prepare(int[] fitness) {
+        int n = fitness.length;
+        // Sort the indexes by fitness packing both in a long
+        long[] ranking = new long[n];
+        for (int i = 0; i < n; i++) {
+            ranking[i] = ((long) fitness[i] << 32) | i;
+        }
+        Arrays.sort(ranking);
+        int[] indexes = new int[n];
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int r = 0; r < n; r++) {
+            indexes[r] = (int) ranking[r];
+            total += n == 1 ? 1 : (2 - pressure) / n + 2.0 * r * (pressure - 1) / (n * (double) (n - 1));
+            cumulative[r] = total;
+        }
+        final double sum = total;
+        return random -> {
+            double p = random.nextDouble() * sum;
+            int low = 0;
+            int high = n - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] > p) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return indexes[low];
+        };
+    }
+
+    public double getPressure() {
+        return pressure;
+    }
+}
@@ -0,0 +1,59 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Roulette wheel selection, the chance is proportional to the fitness
+ * Negative fitness counts as zero and a zero total selects uniformly
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class RouletteSelection implements SelectionStrategy {
+
+    @Override
+    public Selector prepare(int[] fitness) {
+        long[] cumulative = cumulative(fitness);
+        long total = cumulative.length == 0 ? 0 : cumulative[cumulative.length - 1];
+        return random -> {
+            if (total == 0) {
+                return random.nextInt(cumulative.length);
+            }
+            return search(cumulative, (long) (random.nextDouble() * total));
+        };
+    }
+
+    /**
+     * Cumulative sum of the fitness
+     * @param fitness
+     * @return
+     */
+    static long[] cumulative(int[] fitness) {
+        long[] cumulative = new long[fitness.length];
+        long total = 0;
+        for (int i = 0; i < fitness.length; i++) {
+            total += Math.max(fitness[i], 0);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * First index where the cumulative sum is bigger than the value
+     * @param cumulative
+     * @param value between 0 and the total, exclusive
+     * @return
+     */
+    static int search(long[] cumulative, long value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
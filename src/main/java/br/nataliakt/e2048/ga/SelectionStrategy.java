@@ -0,0 +1,47 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Strategy to select parents by the fitness of a generation
+ * The strategy is prepared once per generation and the selector is read only,
+ * so many threads can select at the same time, each one with its own random
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public interface SelectionStrategy {
+
+    /**
+     * Prepare the selection over a fitness snapshot
+     * @param fitness fitness of each chromosome, by index
+     * @return
+     */
+    Selector prepare(int[] fitness);
+
+    /**
+     * Selection prepared for a fitness snapshot
+     */
+    interface Selector {
+
+        /**
+         * Select the index of one chromosome
+         * @param random
+         * @return
+         */
+        int select(Random random);
+
+        /**
+         * Select the indexes of many chromosomes
+         * @param count
+         * @param random
+         * @return
+         */
+        default int[] select(int count, Random random) {
+            int[] selected = new int[count];
+            for (int i = 0; i < count; i++) {
+                selected[i] = select(random);
+            }
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Stochastic universal sampling, one spin of a roulette with equally spaced pointers
+ * A batch of selections has the minimum spread from the expected number of copies
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class StochasticUniversalSampling implements SelectionStrategy {
+
+    @Override
+    public Selector prepare(int[] fitness) {
+        long[] cumulative = RouletteSelection.cumulative(fitness);
+        long total = cumulative.length == 0 ? 0 : cumulative[cumulative.length - 1];
+        return new Selector() {
+            @Override
+            public int select(Random random) {
+                if (total == 0) {
+                    return random.nextInt(cumulative.length);
+                }
+                return RouletteSelection.search(cumulative, (long) (random.nextDouble() * total));
+            }
+
+            @Override
+            public int[] select(int count, Random random) {
+                int[] selected = new int[count];
+                if (count == 0) {
+                    return selected;
+                }
+                if (total == 0) {
+                    for (int i = 0; i < count; i++) {
+                        selected[i] = random.nextInt(cumulative.length);
+                    }
+                    return selected;
+                }
+                double step = total / (double) count;
+                double pointer = random.nextDouble() * step;
+                int index = 0;
+                for (int i = 0; i < count; i++, pointer += step) {
+                    while (index < cumulative.length - 1 && cumulative[index] <= pointer) {
+                        index++;
+                    }
+                    selected[i] = index;
+                }
+                // Shuffle so the pairs of parents are not sorted by index
+                for (int i = count - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = selected[i];
+                    selected[i] = selected[j];
+                    selected[j] = swap;
+                }
+                return selected;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package br.nataliakt.e2048.ga;
+
+/**
+ * Tournament selection, the best of k random chromosomes wins
+ * It needs no global sum, so it works on any slice of a population
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class TournamentSelection implements SelectionStrategy {
+
+    private final int size;
+
+    /**
+     * Constructor with the tournament size
+     * @param size
+     */
+    public TournamentSelection(int size) {
+        assert size > 0;
+        this.size = size;
+    }
+
+    @Override
+    public Selector prepare(int[] fitness) {
+        return random -> {
+            int best = random.nextInt(fitness.length);
+            for (int i = 1; i < size; i++) {
+                int challenger = random.nextInt(fitness.length);
+                if (fitness[challenger] > fitness[best]) {
+                    best = challenger;
+                }
+            }
+            return best;
+        };
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
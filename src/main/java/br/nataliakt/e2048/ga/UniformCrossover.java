@@ -0,0 +1,26 @@
+package br.nataliakt.e2048.ga;
+
+import java.util.Random;
+
+/**
+ * Crossover where each gene comes from a random parent
+ * The mask is built with one random bit per gene spread to all the gene bits
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class UniformCrossover extends MaskCrossover {
+
+    @Override
+    protected void fillMask(long[] mask, int size, int bits, Random random) {
+        long low = PackedGenes.lowBits(bits);
+        long spread = bits == 64 ? -1L : (1L << bits) - 1;
+        for (int w = 0; w < mask.length; w++) {
+            // No carry: each gene field is 0 or 1 times all ones
+            mask[w] = (random.nextLong() & low) * spread;
+        }
+        int tail = size * bits - (mask.length - 1) * 64;
+        if (mask.length > 0 && tail < 64) {
+            mask[mask.length - 1] &= (1L << tail) - 1;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package br.nataliakt.e2048.model;
 
+import br.nataliakt.e2048.engine.BoardEngine;
+import br.nataliakt.e2048.engine.Heuristic;
+import br.nataliakt.e2048.engine.Spawn;
 import br.nataliakt.e2048.ga.Chromosome;
 import br.nataliakt.e2048.ga.Generation;
 import javafx.application.Platform;
@@ -7,7 +10,6 @@ import javafx.beans.property.SimpleIntegerProperty;
 
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Represents the game board with the moviments
@@ -16,12 +18,15 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class Game extends Chromosome {
 
-    public static final int WIDTH = 4;
-    public static final int HEIGHT = 4;
+    private final int width;
+    private final int height;
+    private final BoardEngine engine;
     private final SimpleIntegerProperty[][] board;
     private SimpleIntegerProperty score;
     private SimpleIntegerProperty moviments;
-    private boolean running = true;
+    private final long spawnSeed;
+    private volatile boolean running = true;
+    private int fitness;
 
     /**
      * Constructor with the super params
@@ -30,9 +35,13 @@ public class Game extends Chromosome {
      */
     public Game(Generation generation, int[] geneList) {
         super(generation, geneList);
-        board = new SimpleIntegerProperty[HEIGHT][WIDTH];
-        for (int i = 0; i < HEIGHT; i++) {
-            for (int j = 0; j < WIDTH; j++) {
+        spawnSeed = generation.getSpawnSeed();
+        width = generation.getBoardWidth();
+        height = generation.getBoardHeight();
+        engine = BoardEngine.of(width, height);
+        board = new SimpleIntegerProperty[height][width];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
                 board[i][j] = new SimpleIntegerProperty(0);
             }
         }
@@ -42,16 +51,50 @@ public class Game extends Chromosome {
     }
 
     /**
-     * Start the moviments
+     * Reuse a finished game of the pool: an empty board with its first number
+     * @param generation
+     * @param packedGenes
+     * @param bits
+     */
+    @Override
+    protected void reset(Generation generation, long[] packedGenes, int bits) {
+        super.reset(generation, packedGenes, bits);
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                board[i][j].set(0);
+            }
+        }
+        score.set(0);
+        moviments.set(0);
+        fitness = 0;
+        running = true;
+        nextNumber();
+    }
+
+    /**
+     * A game is reused only with the same board and spawn seed
+     * @param generation
+     * @return
+     */
+    @Override
+    protected boolean canReset(Generation generation) {
+        return super.canReset(generation) && !running && spawnSeed == generation.getSpawnSeed()
+                && width == generation.getBoardWidth() && height == generation.getBoardHeight();
+    }
+
+    /**
+     * Start the moviments, a finished game (like an elite carried over) is not played again
      */
     public void start() {
+        if (!running) {
+            return;
+        }
         Timer timer = new Timer();
         final int[] i = {0, 0};
         timer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
-                if (i[0] >= size()) {
-                    running = false;
+                if (!running) {
                     timer.cancel();
                     return;
                 }
@@ -59,7 +102,13 @@ public class Game extends Chromosome {
                     return;
                 }
                 Platform.runLater(() -> {
-                    swipe(MovimentEnum.find(get(i[0])));
+                    int moviment = nextMoviment(i[0]);
+                    if (moviment < 0) {
+                        updateFitness();
+                        running = false;
+                        return;
+                    }
+                    swipe(MovimentEnum.find(moviment));
                     i[0]++;
                 });
                 i[1]++;
@@ -68,18 +117,37 @@ public class Game extends Chromosome {
     }
 
     /**
-     * Create a new number (2 or 4) in a random free space
+     * Swipe played in a step on the screen, the gene of the step
+     * @param step number of swipes already played
+     * @return the moviment value, -1 when the game is over
+     */
+    protected int nextMoviment(int step) {
+        return step < size() ? get(step) : -1;
+    }
+
+    /**
+     * Swipes of the whole game, the gene list for a move script
+     * @return
+     */
+    public int[] getSwipes() {
+        return getGeneList();
+    }
+
+    /**
+     * Create a new number (2 or 4) in a free space chosen by the spawn seed
+     * @see Spawn
      */
     protected void nextNumber() {
         int spaces = countSpaces();
         if (spaces == 0) {
             return;
         }
-        int positionRandom = ThreadLocalRandom.current().nextInt(spaces);
-        int value = ThreadLocalRandom.current().nextInt(1, 3) * 2;
+        long hash = Spawn.hash(spawnSeed, engine.hash(getPackedBoard(), 0), moviments.get());
+        int positionRandom = Spawn.position(hash, spaces);
+        int value = 1 << Spawn.exponent(hash);
         int position = 0;
-        for (int i = 0; i < HEIGHT; i++) {
-            for (int j = 0; j < WIDTH; j++) {
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
                 if (board[i][j].get() != 0) {
                     continue;
                 }
@@ -123,9 +191,9 @@ public class Game extends Chromosome {
      */
     protected boolean swipeLeft() {
         boolean swiped = false;
-        for (int i = 0; i < HEIGHT; i++) {
-            for (int j = 0; j < WIDTH; j++) {
-                if (searchNextAndSecond(i, j, false, j + 1, 0, WIDTH, 1)) {
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                if (searchNextAndSecond(i, j, false, j + 1, 0, width, 1)) {
                     swiped = true;
                 }
             }
@@ -139,9 +207,9 @@ public class Game extends Chromosome {
      */
     protected boolean swipeUp() {
         boolean swiped = false;
-        for (int j = 0; j < WIDTH; j++) {
-            for (int i = 0; i < HEIGHT; i++) {
-                if (searchNextAndSecond(i, j, true, i + 1, 0, HEIGHT, 1)) {
+        for (int j = 0; j < width; j++) {
+            for (int i = 0; i < height; i++) {
+                if (searchNextAndSecond(i, j, true, i + 1, 0, height, 1)) {
                     swiped = true;
                 }
             }
@@ -155,9 +223,9 @@ public class Game extends Chromosome {
      */
     protected boolean swipeRight() {
         boolean swiped = false;
-        for (int i = 0; i < HEIGHT; i++) {
-            for (int j = WIDTH - 1; j >= 0; j--) {
-                if (searchNextAndSecond(i, j, false, j - 1, -1, WIDTH, -1)) {
+        for (int i = 0; i < height; i++) {
+            for (int j = width - 1; j >= 0; j--) {
+                if (searchNextAndSecond(i, j, false, j - 1, -1, width, -1)) {
                     swiped = true;
                 }
             }
@@ -171,9 +239,9 @@ public class Game extends Chromosome {
      */
     protected boolean swipeDown() {
         boolean swiped = false;
-        for (int j = 0; j < WIDTH; j++) {
-            for (int i = HEIGHT - 1; i >= 0; i--) {
-                if (searchNextAndSecond(i, j, true, i - 1, -1, HEIGHT, -1)) {
+        for (int j = 0; j < width; j++) {
+            for (int i = height - 1; i >= 0; i--) {
+                if (searchNextAndSecond(i, j, true, i - 1, -1, height, -1)) {
                     swiped = true;
                 }
             }
@@ -231,8 +299,8 @@ public class Game extends Chromosome {
 
     public int countSpaces() {
         int count = 0;
-        for (int i = 0; i < HEIGHT; i++) {
-            for (int j = 0; j < WIDTH; j++) {
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
                 if (board[i][j].get() == 0) {
                     count++;
                 }
@@ -241,6 +309,59 @@ public class Game extends Chromosome {
         return count;
     }
 
+    /**
+     * Board packed with the exponent of each number
+     * @return
+     * @see BoardEngine
+     */
+    public long[] getPackedBoard() {
+        long[] packed = new long[engine.words()];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                int value = board[i][j].get();
+                if (value != 0) {
+                    engine.set(packed, 0, i, j, Integer.numberOfTrailingZeros(value));
+                }
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Finish the game with a state played without the screen
+     * @param packedBoard
+     * @param score
+     * @param moviments
+     */
+    public void finish(long[] packedBoard, int score, int moviments) {
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                int exponent = engine.get(packedBoard, 0, i, j);
+                board[i][j].set(exponent == 0 ? 0 : 1 << exponent);
+            }
+        }
+        this.score.set(score);
+        this.moviments.set(moviments);
+        running = false;
+        updateFitness();
+    }
+
+    public long getSpawnSeed() {
+        return spawnSeed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public BoardEngine getEngine() {
+        return engine;
+    }
+
     public SimpleIntegerProperty[][] getBoard() {
         return board;
     }
@@ -265,14 +386,32 @@ public class Game extends Chromosome {
         return max;
     }
 
+    /**
+     * Update the fitness with the heuristic of the generation, the score is used without one
+     * It runs when the game finishes
+     */
     @Override
     public void updateFitness() {
-
+        if (engine == null) {
+            // Called by the super constructor
+            return;
+        }
+        Heuristic heuristic = getGeneration().getHeuristic();
+        fitness = heuristic == null ? score.get() : heuristic.fitness(engine, getPackedBoard(), 0, score.get());
     }
 
     @Override
     public int getFitness() {
-        return score.get();
+        return getGeneration().getHeuristic() == null ? score.get() : fitness;
+    }
+
+    /**
+     * Score, best number and moviments
+     * @return
+     */
+    @Override
+    public int[] getObjectives() {
+        return new int[]{score.get(), bestValue(), moviments.get()};
     }
 
     public boolean isRunning() {
@@ -287,9 +426,9 @@ public class Game extends Chromosome {
         stringBuilder.append(". M: ");
         stringBuilder.append(moviments.get());
         stringBuilder.append(")");
-        for (int i = 0; i < HEIGHT; i++) {
+        for (int i = 0; i < height; i++) {
             stringBuilder.append("\n [ ");
-            for (int j = 0; j < WIDTH; j++) {
+            for (int j = 0; j < width; j++) {
                 stringBuilder.append(board[i][j].get());
                 stringBuilder.append(" ");
             }
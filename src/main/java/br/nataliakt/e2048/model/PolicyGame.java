@@ -0,0 +1,101 @@
+package br.nataliakt.e2048.model;
+
+import br.nataliakt.e2048.engine.BoardEngine;
+import br.nataliakt.e2048.engine.Policy;
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.ga.PackedGenes;
+
+import java.util.Arrays;
+
+/**
+ * Game played by a policy instead of a move script
+ * The gene list is a table of swipes indexed by the shape of the board, so the game
+ * goes on until it is stuck and each gene is used many times
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ * @see Policy
+ */
+public class PolicyGame extends Game {
+
+    public static final int SCREEN_MOVIMENTS = 500; // Swipes shown on the screen, the rest is played at once
+
+    /**
+     * Constructor with the super params
+     * @param generation
+     * @param geneList the table, its size is a power of two and the gene limit is 4
+     */
+    public PolicyGame(Generation<?> generation, int[] geneList) {
+        super(generation, geneList);
+        assert Integer.bitCount(geneList.length) == 1 && generation.getGeneLimit() == 4;
+    }
+
+    /**
+     * Bits of the table index
+     * @return
+     */
+    public int getTableBits() {
+        return Integer.numberOfTrailingZeros(size());
+    }
+
+    /**
+     * Swipe of the policy on the screen, after SCREEN_MOVIMENTS the game is finished without the screen
+     * @param step
+     * @return
+     */
+    @Override
+    protected int nextMoviment(int step) {
+        if (step >= SCREEN_MOVIMENTS) {
+            playRest();
+            return -1;
+        }
+        return Policy.direction(getEngine(), getPackedBoard(), 0, getPackedGenes(),
+                PackedGenes.bitsPerGene(getGeneration().getGeneLimit()), getTableBits());
+    }
+
+    /**
+     * Play the policy from the board on the screen until it is stuck, like the evaluator
+     */
+    private void playRest() {
+        BoardEngine engine = getEngine();
+        long[] genes = getPackedGenes();
+        int bits = PackedGenes.bitsPerGene(getGeneration().getGeneLimit());
+        long[] board = getPackedBoard();
+        int score = getScore().get();
+        int moviments = getMoviments().get();
+        while (moviments < Policy.MOVIMENTS_LIMIT) {
+            int played = Policy.play(engine, board, 0, genes, bits, getTableBits(), getSpawnSeed(), moviments);
+            if (played < 0) {
+                break;
+            }
+            score += played >>> 2;
+            moviments++;
+        }
+        finish(board, score, moviments);
+    }
+
+    /**
+     * Swipes played by the policy from the start
+     * @return
+     */
+    @Override
+    public int[] getSwipes() {
+        BoardEngine engine = getEngine();
+        long[] genes = getPackedGenes();
+        int bits = PackedGenes.bitsPerGene(getGeneration().getGeneLimit());
+        long[] board = new long[engine.words()];
+        engine.start(board, 0, getSpawnSeed());
+        int[] swipes = new int[64];
+        int moviments = 0;
+        while (moviments < Policy.MOVIMENTS_LIMIT) {
+            int played = Policy.play(engine, board, 0, genes, bits, getTableBits(), getSpawnSeed(), moviments);
+            if (played < 0) {
+                break;
+            }
+            if (moviments == swipes.length) {
+                swipes = Arrays.copyOf(swipes, moviments * 2);
+            }
+            swipes[moviments++] = played & 3;
+        }
+        return Arrays.copyOf(swipes, moviments);
+    }
+}
@@ -0,0 +1,52 @@
+package br.nataliakt.e2048.sweep;
+
+/**
+ * Parameters of one run of a sweep
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class SweepConfig {
+
+    private final int id;
+    private final double mutation;
+    private final int chromosomeSize;
+    private final int generationSize;
+
+    /**
+     * Constructor with the parameters
+     * @param id
+     * @param mutation
+     * @param chromosomeSize number of moviments
+     * @param generationSize number of games
+     */
+    public SweepConfig(int id, double mutation, int chromosomeSize, int generationSize) {
+        assert mutation >= 0 && mutation <= 1;
+        assert chromosomeSize > 0 && generationSize > 1;
+        this.id = id;
+        this.mutation = mutation;
+        this.chromosomeSize = chromosomeSize;
+        this.generationSize = generationSize;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public double getMutation() {
+        return mutation;
+    }
+
+    public int getChromosomeSize() {
+        return chromosomeSize;
+    }
+
+    public int getGenerationSize() {
+        return generationSize;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + id + " (mutation " + mutation + ", chromosome " + chromosomeSize
+                + ", generation " + generationSize + ")";
+    }
+}
@@ -0,0 +1,154 @@
+package br.nataliakt.e2048.sweep;
+
+import br.nataliakt.e2048.engine.Evaluator;
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A run of a sweep, played in steps until it is stopped or reaches the last generation
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class SweepResult {
+
+    private final SweepConfig config;
+    private final int cores;
+    private final Evaluator evaluator;
+    private Generation<Game> generation;
+    private int generations;
+    private int bestFitness;
+    private double meanFitness;
+    private int bestValue;
+    private long nanos;
+    private int stoppedAt;
+
+    /**
+     * Constructor with the config and its core budget
+     * @param config
+     * @param cores threads that play the games of the run
+     */
+    SweepResult(SweepConfig config, int cores) {
+        assert cores > 0;
+        this.config = config;
+        this.cores = cores;
+        evaluator = new Evaluator();
+        stoppedAt = -1;
+    }
+
+    /**
+     * Play the generations up to a number, inside a pool with the core budget
+     * @param target number of generations
+     * @param spawnSeed
+     * @throws ExecutionException
+     * @throws InterruptedException
+     */
+    void advance(int target, long spawnSeed) throws ExecutionException, InterruptedException {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(cores);
+        try {
+            pool.submit(() -> {
+                if (generation == null) {
+                    generation = new Generation<>(SweepRunner.GENE_LIMIT, config.getMutation(), config.getChromosomeSize());
+                    generation.setSpawnSeed(spawnSeed);
+                    generation.setElitism(SweepRunner.ELITISM);
+                    generation.randomGeneration(config.getGenerationSize(), Game.class);
+                }
+                while (generations < target) {
+                    if (generations > 0) {
+                        generation = generation.nextGeneration(Game.class);
+                    }
+                    evaluator.evaluate(generation);
+                    generations++;
+                    record();
+                }
+                return null;
+            }).get();
+        } finally {
+            pool.shutdown();
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    private void record() {
+        long sum = 0;
+        for (int c = 0; c < generation.size(); c++) {
+            Game game = (Game) generation.get(c);
+            sum += game.getFitness();
+            bestFitness = Math.max(bestFitness, game.getFitness());
+            bestValue = Math.max(bestValue, game.bestValue());
+        }
+        meanFitness = sum / (double) generation.size();
+    }
+
+    /**
+     * Stop the run, it fell behind the others
+     * @param rung step of the successive halving
+     */
+    void stop(int rung) {
+        stoppedAt = rung;
+        generation = null;
+    }
+
+    public SweepConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Threads that play the games of the run
+     * @return
+     */
+    public int getCores() {
+        return cores;
+    }
+
+    /**
+     * Number of generations played
+     * @return
+     */
+    public int getGenerations() {
+        return generations;
+    }
+
+    /**
+     * Best fitness of all the generations
+     * @return
+     */
+    public int getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * Mean fitness of the last generation
+     * @return
+     */
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    /**
+     * Best number of all the generations
+     * @return
+     */
+    public int getBestValue() {
+        return bestValue;
+    }
+
+    /**
+     * Time playing the run
+     * @return
+     */
+    public double getSeconds() {
+        return nanos / 1e9;
+    }
+
+    /**
+     * Step of the successive halving where the run was stopped
+     * @return -1 when it played all the generations
+     */
+    public int getStoppedAt() {
+        return stoppedAt;
+    }
+}
@@ -0,0 +1,177 @@
+package br.nataliakt.e2048.sweep;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+/**
+ * Plays many headless runs over a shared set of cores
+ * Each run has a core budget, and a run starts when its budget is free, so small runs fill
+ * the cores left by the big ones. The runs are played in steps (rungs): after each step only
+ * the best part continues and plays eta times more generations (successive halving)
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class SweepRunner {
+
+    public static final int GENE_LIMIT = 4;
+    public static final int ELITISM = 1;
+    public static final int GAMES_PER_CORE = 16;
+
+    private final int cores;
+    private final int budget;
+    private final int minGenerations;
+    private final int maxGenerations;
+    private final int eta;
+    private final long spawnSeed;
+
+    /**
+     * Constructor with the limits of the sweep
+     * @param cores threads shared by all the runs
+     * @param budget most threads used by one run
+     * @param minGenerations generations played by every run
+     * @param maxGenerations generations played by the best runs
+     * @param eta a run in eta continues after each rung, bigger than 1
+     * @param spawnSeed the same for every run, so they play the same games
+     */
+    public SweepRunner(int cores, int budget, int minGenerations, int maxGenerations, int eta, long spawnSeed) {
+        assert cores > 0 && budget > 0;
+        assert minGenerations > 0 && minGenerations <= maxGenerations;
+        assert eta > 1;
+        this.cores = cores;
+        this.budget = Math.min(budget, cores);
+        this.minGenerations = minGenerations;
+        this.maxGenerations = maxGenerations;
+        this.eta = eta;
+        this.spawnSeed = spawnSeed;
+    }
+
+    /**
+     * Core budget of a run, one core for each GAMES_PER_CORE games
+     * @param config
+     * @return
+     */
+    int budget(SweepConfig config) {
+        return Math.max(1, Math.min(budget, config.getGenerationSize() / GAMES_PER_CORE));
+    }
+
+    /**
+     * Play the runs
+     * @param configs
+     * @return the results, from the best fitness
+     * @throws InterruptedException
+     */
+    public List<SweepResult> run(List<SweepConfig> configs) throws InterruptedException {
+        List<SweepResult> results = new ArrayList<>();
+        for (SweepConfig config : configs) {
+            results.add(new SweepResult(config, budget(config)));
+        }
+        Comparator<SweepResult> best = Comparator.comparingInt(SweepResult::getBestFitness).reversed()
+                .thenComparing(Comparator.comparingDouble(SweepResult::getMeanFitness).reversed());
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        List<SweepResult> alive = new ArrayList<>(results);
+        try {
+            int target = Math.min(minGenerations, maxGenerations);
+            for (int rung = 0; !alive.isEmpty(); rung++) {
+                final int generations = target;
+                dispatch(alive, cores, SweepResult::getCores,
+                        result -> result.advance(generations, spawnSeed), executor);
+                if (target >= maxGenerations) {
+                    break;
+                }
+
+                alive.sort(best);
+                int keep = Math.max(1, alive.size() / eta);
+                for (SweepResult result : alive.subList(keep, alive.size())) {
+                    result.stop(rung);
+                }
+                alive = new ArrayList<>(alive.subList(0, keep));
+                target = (int) Math.min(maxGenerations, (long) target * eta);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        results.sort(best);
+        return results;
+    }
+
+    /**
+     * Play runs over the cores: each time a run finishes, the waiting runs whose budget fits the free
+     * cores start, from the biggest budget. A small run does not wait behind a big one that does not fit yet
+     * @param runs
+     * @param cores
+     * @param budget cores of a run, more than the cores counts as all of them
+     * @param task
+     * @param executor
+     * @throws InterruptedException
+     * @throws IllegalStateException when a run fails
+     */
+    static <R> void dispatch(List<R> runs, int cores, ToIntFunction<R> budget, Task<R> task,
+                             ExecutorService executor) throws InterruptedException {
+        ToIntFunction<R> cost = run -> Math.min(cores, budget.applyAsInt(run));
+        List<R> waiting = new ArrayList<>(runs);
+        waiting.sort(Comparator.comparingInt(cost).reversed());
+        CompletionService<R> finished = new ExecutorCompletionService<>(executor);
+        int free = cores;
+        int running = 0;
+        while (!waiting.isEmpty() || running > 0) {
+            for (Iterator<R> iterator = waiting.iterator(); iterator.hasNext() && free > 0; ) {
+                R run = iterator.next();
+                if (cost.applyAsInt(run) <= free) {
+                    iterator.remove();
+                    free -= cost.applyAsInt(run);
+                    running++;
+                    finished.submit(() -> {
+                        task.run(run);
+                        return run;
+                    });
+                }
+            }
+            // With all the cores free the biggest run fits, so something is always running here
+            Future<R> future = finished.take();
+            running--;
+            try {
+                free += cost.applyAsInt(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Run failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Work of a run in the dispatcher
+     * @param <R>
+     */
+    interface Task<R> {
+        void run(R run) throws Exception;
+    }
+
+    /**
+     * Write the results as a table separated by tabs
+     * @param results
+     * @param out
+     * @throws IOException
+     */
+    public static void writeTable(List<SweepResult> results, Appendable out) throws IOException {
+        out.append("id\tmutation\tchromosome\tgeneration\tcores\tgenerations\tbest\tmean\tnumber\tseconds\tstopped\n");
+        for (SweepResult result : results) {
+            SweepConfig config = result.getConfig();
+            out.append(String.format(Locale.ROOT, "%d\t%s\t%d\t%d\t%d\t%d\t%d\t%.1f\t%d\t%.2f\t%s%n",
+                    config.getId(), config.getMutation(), config.getChromosomeSize(), config.getGenerationSize(),
+                    result.getCores(), result.getGenerations(), result.getBestFitness(), result.getMeanFitness(),
+                    result.getBestValue(), result.getSeconds(),
+                    result.getStoppedAt() < 0 ? "-" : String.valueOf(result.getStoppedAt())));
+        }
+    }
+}
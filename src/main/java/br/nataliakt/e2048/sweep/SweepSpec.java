@@ -0,0 +1,142 @@
+package br.nataliakt.e2048.sweep;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Values tried for each parameter of a sweep
+ * A parameter is a list of values, used by the grid and the random search,
+ * or a range, used only by the random search
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+public class SweepSpec {
+
+    private final Parameter mutation;
+    private final Parameter chromosomeSize;
+    private final Parameter generationSize;
+
+    /**
+     * Constructor with the parameters
+     * @param mutation
+     * @param chromosomeSize
+     * @param generationSize
+     */
+    public SweepSpec(Parameter mutation, Parameter chromosomeSize, Parameter generationSize) {
+        this.mutation = mutation;
+        this.chromosomeSize = chromosomeSize;
+        this.generationSize = generationSize;
+    }
+
+    /**
+     * All the combinations of the values
+     * @return
+     */
+    public List<SweepConfig> grid() {
+        List<SweepConfig> configs = new ArrayList<>();
+        for (double m : mutation.getValues()) {
+            for (double c : chromosomeSize.getValues()) {
+                for (double g : generationSize.getValues()) {
+                    configs.add(new SweepConfig(configs.size() + 1, m, (int) Math.round(c), (int) Math.round(g)));
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Random combinations of the values
+     * @param count
+     * @param random
+     * @return
+     */
+    public List<SweepConfig> random(int count, Random random) {
+        List<SweepConfig> configs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            configs.add(new SweepConfig(i + 1, mutation.sample(random),
+                    (int) Math.round(chromosomeSize.sample(random)),
+                    (int) Math.round(generationSize.sample(random))));
+        }
+        return configs;
+    }
+
+    /**
+     * Values of a parameter
+     */
+    public static class Parameter {
+
+        private final double[] values;
+        private final double min;
+        private final double max;
+
+        private Parameter(double[] values, double min, double max) {
+            this.values = values;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * A list of values
+         * @param values
+         * @return
+         */
+        public static Parameter values(double... values) {
+            assert values.length > 0;
+            return new Parameter(values.clone(), 0, 0);
+        }
+
+        /**
+         * A range of values, only for the random search
+         * @param min
+         * @param max
+         * @return
+         */
+        public static Parameter range(double min, double max) {
+            assert min <= max;
+            return new Parameter(null, min, max);
+        }
+
+        /**
+         * Read a list like "0.001,0.005" or a range like "0.001..0.01"
+         * @param text
+         * @return
+         */
+        public static Parameter parse(String text) {
+            int dots = text.indexOf("..");
+            if (dots >= 0) {
+                return range(Double.parseDouble(text.substring(0, dots)), Double.parseDouble(text.substring(dots + 2)));
+            }
+            String[] parts = text.split(",");
+            double[] values = new double[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Double.parseDouble(parts[i].trim());
+            }
+            return values(values);
+        }
+
+        /**
+         * Values of the grid
+         * @return
+         * @throws IllegalArgumentException when it is a range
+         */
+        public double[] getValues() {
+            if (values == null) {
+                throw new IllegalArgumentException("A range has no grid values: " + min + ".." + max);
+            }
+            return values;
+        }
+
+        /**
+         * A random value
+         * @param random
+         * @return
+         */
+        public double sample(Random random) {
+            if (values != null) {
+                return values[random.nextInt(values.length)];
+            }
+            return min + (max - min) * random.nextDouble();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package br.nataliakt.e2048.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 4x4 bitboard engine that swipes one board per vector lane
+ * Each lane picks the transposed board for vertical swipes and the table half of its direction,
+ * the rows are gathered from the line tables and the new numbers stay scalar
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+class VectorBitboardEngine extends BitboardEngine {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    private final int[] lines;
+    private final int[] scores;
+    private final int entries;
+
+    VectorBitboardEngine() {
+        super(4, 4);
+        LineTable table = LineTable.of(4);
+        lines = table.getLines();
+        scores = table.getScores();
+        entries = lines.length / 2;
+    }
+
+    @Override
+    public void moveAll(long[] boards, int count, int[] directions, int[] scores) {
+        int lanes = LONGS.length();
+        int[] indexes = new int[lanes];
+        int k = 0;
+        for (; k + lanes <= count; k += lanes) {
+            moveLanes(boards, directions, scores, k, indexes);
+        }
+        for (; k < count; k++) {
+            scores[k] = move(boards, k, directions[k]);
+        }
+    }
+
+    private void moveLanes(long[] boards, int[] directions, int[] result, int k, int[] indexes) {
+        LongVector board = LongVector.fromArray(LONGS, boards, k);
+        IntVector direction = IntVector.fromArray(INTS, directions, k);
+        LongVector longDirection = (LongVector) direction.convertShape(VectorOperators.I2L, LONGS, 0);
+        VectorMask<Long> vertical = longDirection.and(1L).compare(VectorOperators.EQ, 1L);
+        VectorMask<Long> invalid = longDirection.compare(VectorOperators.UNSIGNED_GT, 3L);
+        // Swipes to the last cell (right and down) use the second half of the tables
+        LongVector half = longDirection.lanewise(VectorOperators.LSHR, 1).and(1L).mul(entries);
+
+        LongVector lanes = board.blend(transpose(board), vertical);
+        LongVector moved = LongVector.zero(LONGS);
+        IntVector score = IntVector.zero(INTS);
+        for (int shift = 0; shift < 64; shift += 16) {
+            LongVector line = lanes.lanewise(VectorOperators.LSHR, shift).and(0xFFFFL).add(half);
+            ((IntVector) line.convertShape(VectorOperators.L2I, INTS, 0)).intoArray(indexes, 0);
+            IntVector row = IntVector.fromArray(INTS, lines, 0, indexes, 0);
+            score = score.add(IntVector.fromArray(INTS, scores, 0, indexes, 0));
+            LongVector longRow = (LongVector) row.convertShape(VectorOperators.I2L, LONGS, 0);
+            moved = moved.or(longRow.lanewise(VectorOperators.LSHL, shift));
+        }
+        moved = moved.blend(transpose(moved), vertical).blend(board, invalid);
+
+        VectorMask<Long> same = moved.compare(VectorOperators.EQ, board);
+        moved.intoArray(boards, k);
+        score.blend(-1, same.cast(INTS)).intoArray(result, k);
+    }
+
+    private static LongVector transpose(LongVector board) {
+        LongVector a1 = board.and(0xF0F00F0FF0F00F0FL);
+        LongVector a2 = board.and(0x0000F0F00000F0F0L);
+        LongVector a3 = board.and(0x0F0F00000F0F0000L);
+        LongVector a = a1.or(a2.lanewise(VectorOperators.LSHL, 12)).or(a3.lanewise(VectorOperators.LSHR, 12));
+        LongVector b1 = a.and(0xFF00FF0000FF00FFL);
+        LongVector b2 = a.and(0x00FF00FF00000000L);
+        LongVector b3 = a.and(0x00000000FF00FF00L);
+        return b1.or(b2.lanewise(VectorOperators.LSHR, 24)).or(b3.lanewise(VectorOperators.LSHL, 24));
+    }
+}
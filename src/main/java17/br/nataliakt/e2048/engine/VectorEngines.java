@@ -0,0 +1,34 @@
+package br.nataliakt.e2048.engine;
+
+/**
+ * Engines with vector instructions, Java 17 version of the multi-release jar
+ * The Vector API is an incubator module, so it is used only when the JVM was started
+ * with --add-modules jdk.incubator.vector
+ * @author Natalia Kelim Thiel
+ * @version 1.0.0
+ */
+final class VectorEngines {
+
+    private VectorEngines() {
+    }
+
+    /**
+     * The vector engine of a board size
+     * @param width
+     * @param height
+     * @return null when there is no vector engine
+     */
+    static BoardEngine of(int width, int height) {
+        if (width != 4 || height != 4) {
+            return null;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return new VectorBitboardEngine();
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Chromosome;
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncEvolutionTest {
+
+    @Test
+    void run() throws InterruptedException {
+        AsyncEvolution evolution = new AsyncEvolution(random(GENERATION_LENGTH), GENERATION_LENGTH, new Evaluator(), 4);
+        int firstWorst = evolution.getPool().worstFitness();
+        int firstBest = evolution.getPool().best().getFitness();
+        evolution.run(200);
+        assertTrue(evolution.getEvaluations() >= 200, "Stopped before the limit");
+        assertEquals(GENERATION_LENGTH, evolution.getPool().size(), "Pool out of its size");
+        assertTrue(evolution.getPool().worstFitness() >= firstWorst, "Worst game got worse");
+        assertTrue(evolution.getPool().best().getFitness() >= firstBest, "Best game lost");
+        for (Chromosome chromosome : evolution.getPool().snapshot()) {
+            assertFalse(((Game) chromosome).isRunning(), "Game in the pool not played");
+        }
+    }
+
+    @Test
+    void withoutPair() {
+        Generation<Game> alone = random(1);
+        assertThrows(IllegalArgumentException.class, () -> new AsyncEvolution(alone, 2, new Evaluator(), 1),
+                "Pool without a pair started");
+    }
+}
@@ -0,0 +1,37 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEvaluatorTest {
+
+    @Test
+    void sameAsEvaluator() {
+        long evaluatorTime = 0;
+        long batchTime = 0;
+        int games = 0;
+        for (int[] boardSize : BOARD_SIZES) {
+            Generation<Game> generation = fill(empty(CHROMOSOME_LENGTH, boardSize), GENERATION_LENGTH * 50, Game.class);
+            Generation<Game> copies = copies(generation);
+
+            long start = System.nanoTime();
+            new Evaluator().evaluate(copies);
+            long middle = System.nanoTime();
+            new BatchEvaluator(64).evaluate(generation);
+            batchTime += System.nanoTime() - middle;
+            evaluatorTime += middle - start;
+            games += generation.size();
+            for (int c = 0; c < generation.size(); c++) {
+                Game game = (Game) generation.get(c);
+                assertFalse(game.isRunning(), "Game not finished by the batch");
+                assertSameGame((Game) copies.get(c), game, "from the batch");
+            }
+        }
+        System.out.printf("Evaluator %.0f ns/game, batch %.0f ns/game%n",
+                evaluatorTime / (double) games, batchTime / (double) games);
+    }
+}
@@ -0,0 +1,37 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetSchedulerTest {
+
+    @Test
+    void run(@TempDir Path directory) throws IOException {
+        Generation<Game> generation = random(4);
+        generation.setElitism(1);
+        BudgetScheduler scheduler = new BudgetScheduler(new Evaluator(), 20, 400, 2, 4096);
+        Path checkpoint = directory.resolve("best.replay");
+        scheduler.setCheckpoint(checkpoint);
+        long start = System.nanoTime();
+        Generation<Game> last = scheduler.run(generation);
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        assertTrue(elapsed < 400 + 1000, "Budget passed: " + elapsed + " ms");
+        assertTrue(scheduler.getGenerations() > 1, "Only one generation");
+        assertTrue(last.size() > 4, "Population not resized to the target time");
+        assertTrue(scheduler.getGamesPerSecond() > 0 && scheduler.getGenesPerSecond() > 0, "Throughput not measured");
+        assertTrue(scheduler.predict(last.size(), CHROMOSOME_LENGTH) > 0, "No prediction");
+        assertFalse(last.getChromosomeList().anyMatch(Game::isRunning), "Last generation not evaluated");
+        Replay best = Replay.fromBytes(Files.readAllBytes(checkpoint));
+        assertEquals(scheduler.getBest().getChromosomeId(), best.getChromosomeId(), "Best not saved");
+    }
+}
@@ -0,0 +1,375 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.MovimentEnum;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential fuzzer between Game.swipe and the board engines
+ * Random boards and moviments are played by both with the same spawn seed, and the first
+ * mismatch is shrunk to a small case. It runs only in the fuzz profile, and the number of
+ * cases comes from -De2048.fuzz.cases, e.g. mvn test -Pfuzz -De2048.fuzz.cases=1000000
+ */
+@Tag("fuzz")
+class EngineFuzzTest {
+
+    private static final long CASES = Long.getLong("e2048.fuzz.cases", 20000);
+    private static final long SEED = Long.getLong("e2048.fuzz.seed", 2048);
+    private static final int[][] BOARD_SIZES = {{4, 4}, {3, 3}, {2, 4}, {4, 2}, {5, 5}, {6, 6}, {7, 3}};
+    private static final int MAX_EXPONENT = 10;
+    private static final int MAX_MOVIMENTS = 48;
+
+    @Test
+    void sameAsSwipe() {
+        LongAdder legacyTime = new LongAdder();
+        LongAdder engineTime = new LongAdder();
+        LongAdder moviments = new LongAdder();
+        AtomicLong failed = new AtomicLong(Long.MAX_VALUE);
+
+        LongStream.range(0, CASES).parallel().forEach(index -> {
+            if (index > failed.get()) {
+                return;
+            }
+            Case fuzzCase = fuzzCase(index);
+            BoardEngine engine = BoardEngine.of(fuzzCase.width, fuzzCase.height);
+            long start = System.nanoTime();
+            Result legacy = legacy(fuzzCase);
+            long middle = System.nanoTime();
+            Result fast = engine(engine, fuzzCase);
+            engineTime.add(System.nanoTime() - middle);
+            legacyTime.add(middle - start);
+            moviments.add(fuzzCase.moviments.length);
+            if (legacy.mismatch(fast) >= 0) {
+                failed.accumulateAndGet(index, Math::min);
+            }
+        });
+
+        System.out.printf("Fuzz: %d cases, %d moviments, legacy %.1f ns/move, engine %.1f ns/move%n",
+                CASES, moviments.sum(), legacyTime.sum() / (double) moviments.sum(),
+                engineTime.sum() / (double) moviments.sum());
+        if (failed.get() != Long.MAX_VALUE) {
+            // Built again from the index, the first failing case is the one shrunk
+            Case fuzzCase = fuzzCase(failed.get());
+            BoardEngine engine = BoardEngine.of(fuzzCase.width, fuzzCase.height);
+            fail("Engine differs from Game.swipe in case " + failed.get() + ", shrunk to " + shrink(engine, fuzzCase));
+        }
+    }
+
+    private static Case fuzzCase(long index) {
+        return Case.random(new SplittableRandom(SEED ^ index * 0x9E3779B97F4A7C15L));
+    }
+
+    @Test
+    void shrink() {
+        BoardEngine engine = new BrokenEngine(BoardEngine.of(4, 4));
+        Case found = null;
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int c = 0; c < 1000 && found == null; c++) {
+            Case fuzzCase = Case.random(random);
+            if (fuzzCase.width == 4 && fuzzCase.height == 4
+                    && legacy(fuzzCase).mismatch(engine(engine, fuzzCase)) >= 0) {
+                found = fuzzCase;
+            }
+        }
+        assertNotNull(found, "The broken engine was not found");
+
+        Case shrunk = shrink(engine, found);
+        assertTrue(legacy(shrunk).mismatch(engine(engine, shrunk)) >= 0, "Shrunk case does not fail");
+        assertEquals(1, shrunk.moviments.length, "Moviments not shrunk");
+        assertEquals(2, Arrays.stream(shrunk.board).filter(e -> e != 0).count(), "Board not shrunk");
+    }
+
+    /**
+     * Greedy shrinking: keep any smaller case that still fails, until none is found
+     * @param engine
+     * @param fuzzCase
+     * @return
+     */
+    private static Case shrink(BoardEngine engine, Case fuzzCase) {
+        // Start from the state just before the first mismatch, both agree until there
+        int step = legacy(fuzzCase).mismatch(engine(engine, fuzzCase));
+        Case current = step == 0 ? fuzzCase : fuzzCase.prefix(step).after(legacy(fuzzCase.prefix(step)));
+        current = current.withMoviments(new int[]{fuzzCase.moviments[step]});
+        boolean shrunk = true;
+        while (shrunk) {
+            shrunk = false;
+            for (Case candidate : current.candidates()) {
+                if (legacy(candidate).mismatch(engine(engine, candidate)) >= 0) {
+                    current = candidate;
+                    shrunk = true;
+                    break;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Result legacy(Case fuzzCase) {
+        Generation<Game> generation = new Generation<>(4, 0, fuzzCase.moviments.length);
+        generation.setBoardSize(fuzzCase.width, fuzzCase.height);
+        generation.setSpawnSeed(fuzzCase.seed);
+        Game game = new Game(generation, fuzzCase.moviments.clone());
+        game.finish(fuzzCase.packed(game.getEngine()), fuzzCase.score, fuzzCase.start);
+        Result result = new Result(fuzzCase.moviments.length);
+        for (int m = 0; m < fuzzCase.moviments.length; m++) {
+            game.swipe(MovimentEnum.find(fuzzCase.moviments[m]));
+            result.record(m, game.getPackedBoard(), game.getScore().get(), game.getMoviments().get());
+        }
+        return result;
+    }
+
+    private static Result engine(BoardEngine engine, Case fuzzCase) {
+        long[] board = fuzzCase.packed(engine);
+        int score = fuzzCase.score;
+        int moviments = fuzzCase.start;
+        Result result = new Result(fuzzCase.moviments.length);
+        for (int m = 0; m < fuzzCase.moviments.length; m++) {
+            int sum = engine.play(board, 0, fuzzCase.moviments[m], fuzzCase.seed, moviments);
+            if (sum >= 0) {
+                score += sum;
+                moviments++;
+            }
+            result.record(m, board.clone(), score, moviments);
+        }
+        return result;
+    }
+
+    /**
+     * Board, spawn seed and moviments of a fuzz case
+     */
+    private static final class Case {
+        private final int width;
+        private final int height;
+        private final int[] board; // exponents by row
+        private final long seed;
+        private final int score;
+        private final int start; // moviments already done, they change the spawns
+        private final int[] moviments;
+
+        Case(int width, int height, int[] board, long seed, int score, int start, int[] moviments) {
+            this.width = width;
+            this.height = height;
+            this.board = board;
+            this.seed = seed;
+            this.score = score;
+            this.start = start;
+            this.moviments = moviments;
+        }
+
+        static Case random(SplittableRandom random) {
+            int[] size = BOARD_SIZES[random.nextInt(BOARD_SIZES.length)];
+            int[] board = new int[size[0] * size[1]];
+            double density = random.nextDouble();
+            int maxExponent = 1 + random.nextInt(MAX_EXPONENT);
+            for (int c = 0; c < board.length; c++) {
+                board[c] = random.nextDouble() < density ? 1 + random.nextInt(maxExponent) : 0;
+            }
+            int[] moviments = new int[1 + random.nextInt(MAX_MOVIMENTS)];
+            for (int m = 0; m < moviments.length; m++) {
+                moviments[m] = random.nextInt(4);
+            }
+            return new Case(size[0], size[1], board, random.nextLong(), 0, random.nextInt(1000), moviments);
+        }
+
+        long[] packed(BoardEngine engine) {
+            long[] packed = new long[engine.words()];
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    engine.set(packed, 0, i, j, board[i * width + j]);
+                }
+            }
+            return packed;
+        }
+
+        Case prefix(int length) {
+            return withMoviments(Arrays.copyOf(moviments, length));
+        }
+
+        Case withMoviments(int[] moviments) {
+            return new Case(width, height, board, seed, score, start, moviments);
+        }
+
+        Case after(Result result) {
+            int last = moviments.length - 1;
+            BoardEngine engine = BoardEngine.of(width, height);
+            int[] next = new int[board.length];
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    next[i * width + j] = engine.get(result.boards[last], 0, i, j);
+                }
+            }
+            return new Case(width, height, next, seed, result.scores[last], result.moviments[last], new int[0]);
+        }
+
+        /**
+         * Smaller cases: less moviments, empty or lower cells, simpler seed and counters
+         * @return
+         */
+        Case[] candidates() {
+            List<Case> candidates = new ArrayList<>();
+            for (int m = 0; m < moviments.length && moviments.length > 1; m++) {
+                int[] fewer = new int[moviments.length - 1];
+                System.arraycopy(moviments, 0, fewer, 0, m);
+                System.arraycopy(moviments, m + 1, fewer, m, fewer.length - m);
+                candidates.add(withMoviments(fewer));
+            }
+            for (int c = 0; c < board.length; c++) {
+                if (board[c] == 0) {
+                    continue;
+                }
+                int[] empty = board.clone();
+                empty[c] = 0;
+                candidates.add(new Case(width, height, empty, seed, score, start, moviments));
+                if (board[c] > 1) {
+                    int[] lower = board.clone();
+                    lower[c]--;
+                    candidates.add(new Case(width, height, lower, seed, score, start, moviments));
+                }
+            }
+            if (score != 0 || start != 0) {
+                candidates.add(new Case(width, height, board, seed, 0, 0, moviments));
+            }
+            if (seed != 1) {
+                candidates.add(new Case(width, height, board, 1, score, start, moviments));
+            }
+            return candidates.toArray(new Case[0]);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder stringBuilder = new StringBuilder();
+            stringBuilder.append(width).append("x").append(height)
+                    .append(" seed ").append(seed)
+                    .append(" score ").append(score)
+                    .append(" moviments ").append(start)
+                    .append(" board ");
+            for (int i = 0; i < height; i++) {
+                stringBuilder.append(i == 0 ? "[" : " ");
+                for (int j = 0; j < width; j++) {
+                    int exponent = board[i * width + j];
+                    stringBuilder.append(j == 0 ? "" : ",").append(exponent == 0 ? 0 : 1 << exponent);
+                }
+                stringBuilder.append(i == height - 1 ? "]" : ";");
+            }
+            stringBuilder.append(" swipes ");
+            for (int moviment : moviments) {
+                stringBuilder.append(MovimentEnum.find(moviment)).append(" ");
+            }
+            return stringBuilder.toString().trim();
+        }
+    }
+
+    /**
+     * State after each moviment of a case
+     */
+    private static final class Result {
+        private final long[][] boards;
+        private final int[] scores;
+        private final int[] moviments;
+
+        Result(int length) {
+            boards = new long[length][];
+            scores = new int[length];
+            moviments = new int[length];
+        }
+
+        void record(int m, long[] board, int score, int moviment) {
+            boards[m] = board;
+            scores[m] = score;
+            moviments[m] = moviment;
+        }
+
+        /**
+         * First moviment where the states are different
+         * @param other
+         * @return -1 when they are equal
+         */
+        int mismatch(Result other) {
+            for (int m = 0; m < boards.length; m++) {
+                if (!Arrays.equals(boards[m], other.boards[m]) || scores[m] != other.scores[m]
+                        || moviments[m] != other.moviments[m]) {
+                    return m;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Engine with a bug planted: two 8s merged to the left give a 32
+     */
+    private static final class BrokenEngine extends BoardEngine {
+        private final BoardEngine engine;
+
+        BrokenEngine(BoardEngine engine) {
+            super(engine.getWidth(), engine.getHeight());
+            this.engine = engine;
+        }
+
+        @Override
+        public int words() {
+            return engine.words();
+        }
+
+        @Override
+        public int move(long[] boards, int offset, int direction) {
+            int[] before = new int[width * height];
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    before[i * width + j] = engine.get(boards, offset, i, j);
+                }
+            }
+            int score = engine.move(boards, offset, direction);
+            if (direction != LEFT) {
+                return score;
+            }
+            for (int i = 0; i < height; i++) {
+                int[] row = new int[width];
+                int count = 0;
+                for (int j = 0; j < width; j++) {
+                    if (before[i * width + j] != 0) {
+                        row[count++] = before[i * width + j];
+                    }
+                }
+                for (int c = 0, j = 0; c < count; j++) {
+                    if (c + 1 < count && row[c] == row[c + 1]) {
+                        if (row[c] == 3) {
+                            engine.set(boards, offset, i, j, 5);
+                        }
+                        c += 2;
+                    } else {
+                        c++;
+                    }
+                }
+            }
+            return score;
+        }
+
+        @Override
+        public int get(long[] boards, int offset, int i, int j) {
+            return engine.get(boards, offset, i, j);
+        }
+
+        @Override
+        public void set(long[] boards, int offset, int i, int j, int exponent) {
+            engine.set(boards, offset, i, j, exponent);
+        }
+
+        @Override
+        public long hash(long[] boards, int offset) {
+            return engine.hash(boards, offset);
+        }
+    }
+}
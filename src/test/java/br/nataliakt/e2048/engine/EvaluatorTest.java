@@ -0,0 +1,36 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluatorTest {
+
+    @Test
+    void sameAsSwipe() {
+        for (int[] boardSize : BOARD_SIZES) {
+            assertSameAsSwipe(fill(empty(CHROMOSOME_LENGTH, boardSize), GENERATION_LENGTH, Game.class));
+        }
+    }
+
+    @Test
+    void prefixCheckpoints() {
+        Generation<Game> generation = random(GENERATION_LENGTH);
+        Evaluator evaluator = new Evaluator();
+        evaluator.evaluate(generation);
+        Generation<Game> next = generation.nextGeneration(Game.class);
+        evaluator.evaluate(next);
+        assertTrue(evaluator.getSkipped() > 0, "No gene was skipped");
+
+        Evaluator fresh = new Evaluator();
+        next.getChromosomeList().forEach(game -> {
+            Game copy = new Game(next, game.getGeneList().clone());
+            fresh.evaluate(copy);
+            assertSameGame(copy, game, "from the checkpoint");
+        });
+        System.out.println("Simulated: " + evaluator.getSimulated() + ", skipped: " + evaluator.getSkipped());
+    }
+}
@@ -0,0 +1,111 @@
+package br.nataliakt.e2048.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPublisherTest {
+
+    @Test
+    void overflow() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(2);
+        List<Long> slow = new CopyOnWriteArrayList<>();
+        List<Long> latest = new CopyOnWriteArrayList<>();
+        EventPublisher<Long> publisher = new EventPublisher<>();
+        EventPublisher<Long>.BufferedSubscription slowSubscription = publisher.subscribe(
+                subscriber(slow, release, completed), 4, EventPublisher.Overflow.DROP_OLDEST);
+        publisher.subscribe(subscriber(latest, release, completed), 4, EventPublisher.Overflow.LATEST);
+        assertEquals(2, publisher.getSubscriberCount(), "Subscriber lost");
+
+        for (long i = 0; i < 100; i++) {
+            assertEquals(2, publisher.publish(i), "Event not buffered");
+        }
+        assertTrue(slowSubscription.getDropped() >= 95, "Publisher waited for a slow subscriber");
+        release.countDown();
+        publisher.close();
+        assertTrue(completed.await(10, TimeUnit.SECONDS), "Subscribers not completed");
+        assertEquals(Long.valueOf(99), slow.get(slow.size() - 1), "Newest event dropped");
+        assertTrue(slow.size() <= 5, "Buffer out of its capacity");
+        assertEquals(Long.valueOf(99), latest.get(latest.size() - 1), "Latest event not delivered");
+        assertTrue(latest.size() <= 2, "Old events kept by the latest-only buffer");
+    }
+
+    @Test
+    void errorAfterEvents() {
+        // The deliveries run on the test thread
+        List<Runnable> tasks = new ArrayList<>();
+        EventPublisher<Long> failing = new EventPublisher<>(tasks::add);
+        List<Object> signals = new ArrayList<>();
+        failing.subscribe(new EventPublisher.Subscriber<Long>() {
+            @Override
+            public void onSubscribe(EventPublisher.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Long item) {
+                signals.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add("complete");
+            }
+        });
+        failing.publish(1L);
+        failing.publish(2L);
+        IllegalStateException error = new IllegalStateException("Stopped");
+        failing.closeExceptionally(error);
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+        assertEquals(Arrays.asList(1L, 2L, error), signals, "Buffered events lost by the error");
+    }
+
+    private static EventPublisher.Subscriber<Long> subscriber(List<Long> received, CountDownLatch release,
+                                                             CountDownLatch completed) {
+        return new EventPublisher.Subscriber<Long>() {
+            private EventPublisher.Subscription subscription;
+
+            @Override
+            public void onSubscribe(EventPublisher.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Long item) {
+                received.add(item);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        };
+    }
+}
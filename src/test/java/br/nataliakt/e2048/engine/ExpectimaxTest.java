@@ -0,0 +1,42 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectimaxTest {
+
+    private final BoardEngine engine = BoardEngine.of(4, 4);
+    private final Expectimax solver = new Expectimax(engine, 2, Expectimax.MIN_PROBABILITY,
+            new Heuristic(Expectimax.WEIGHTS), ForkJoinPool.commonPool());
+
+    @Test
+    void betterThanScripts() {
+        Generation<Game> generation = evaluated(GENERATION_LENGTH);
+        int best = generation.getChromosomeList().mapToInt(game -> game.getScore().get()).max().getAsInt();
+
+        Expectimax.Result result = solver.play(generation.getSpawnSeed(), CHROMOSOME_LENGTH);
+        System.out.println("Expectimax: " + result.getScore() + " against " + best + ", "
+                + Math.round(result.getNodesPerSecond()) + " boards/s");
+        assertTrue(result.getScore() > best, "Solver worse than random scripts");
+        assertTrue(result.getNodes() > result.getMoviments(), "Nodes not counted");
+    }
+
+    @Test
+    void stuck() {
+        long[] stuck = new long[engine.words()];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                engine.set(stuck, 0, i, j, 1 + (i + j) % 2);
+            }
+        }
+        assertEquals(-1, solver.best(stuck), "Swipe on a stuck board");
+        engine.set(stuck, 0, 0, 1, 1);
+        assertTrue(solver.best(stuck) >= 0, "Merge not found");
+    }
+}
@@ -0,0 +1,33 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FitnessMemoTest {
+
+    @Test
+    void duplicates() {
+        Generation<Game> generation = random(GENERATION_LENGTH);
+        FitnessMemo memo = new FitnessMemo(GENERATION_LENGTH, 2);
+        Evaluator evaluator = new Evaluator();
+        evaluator.setMemo(memo);
+        evaluator.evaluate(generation);
+        assertEquals(0, memo.getHits(), "Hits in the first generation");
+        assertEquals(GENERATION_LENGTH, memo.getMisses(), "Wrong number of misses");
+
+        Generation<Game> duplicates = copies(generation);
+        evaluator.evaluate(duplicates);
+        assertEquals(GENERATION_LENGTH, memo.getHits(), "Duplicates not found in the memo");
+        for (int c = 0; c < GENERATION_LENGTH; c++) {
+            assertEquals(generation.get(c).getFitness(), duplicates.get(c).getFitness(), "Wrong fitness from the memo");
+        }
+
+        memo.advance();
+        memo.advance();
+        assertEquals(0, memo.size(), "Old entries not dropped");
+    }
+}
@@ -0,0 +1,124 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Chromosome;
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.MovimentEnum;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generations of games shared by the tests
+ * The reflective exceptions of Generation become failures of the test
+ */
+public final class GameFixtures {
+
+    public static final int GENERATION_LENGTH = 20;
+    public static final int CHROMOSOME_LENGTH = 400;
+    public static final int GENE_LIMIT = 4;
+    public static final double GENE_MUTATION = 0.005;
+    public static final int[][] BOARD_SIZES = {{4, 4}, {3, 3}, {2, 4}, {5, 5}, {6, 6}, {7, 3}};
+
+    private GameFixtures() {
+    }
+
+    /**
+     * Generation without chromosomes
+     * @param chromosomeLength
+     * @return
+     */
+    public static <T extends Chromosome> Generation<T> empty(int chromosomeLength) {
+        return new Generation<>(GENE_LIMIT, GENE_MUTATION, chromosomeLength);
+    }
+
+    /**
+     * Generation without chromosomes on a board size
+     * @param chromosomeLength
+     * @param boardSize width and height
+     * @return
+     */
+    public static <T extends Chromosome> Generation<T> empty(int chromosomeLength, int[] boardSize) {
+        Generation<T> generation = empty(chromosomeLength);
+        generation.setBoardSize(boardSize[0], boardSize[1]);
+        return generation;
+    }
+
+    /**
+     * Add random chromosomes to a generation
+     * @param generation
+     * @param length
+     * @param classObject
+     * @return the same generation
+     */
+    public static <T extends Chromosome> Generation<T> fill(Generation<T> generation, int length,
+                                                           Class<? extends T> classObject) {
+        try {
+            generation.randomGeneration(length, classObject);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError("Chromosomes not built", e);
+        }
+        return generation;
+    }
+
+    /**
+     * Random games of CHROMOSOME_LENGTH swipes
+     * @param length
+     * @return
+     */
+    public static Generation<Game> random(int length) {
+        return fill(empty(CHROMOSOME_LENGTH), length, Game.class);
+    }
+
+    /**
+     * Random games of CHROMOSOME_LENGTH swipes already played
+     * @param length
+     * @return
+     */
+    public static Generation<Game> evaluated(int length) {
+        Generation<Game> generation = random(length);
+        new Evaluator().evaluate(generation);
+        return generation;
+    }
+
+    /**
+     * New games with the genes, seed and board size of a generation, not played yet
+     * @param generation
+     * @return
+     */
+    public static Generation<Game> copies(Generation<? extends Game> generation) {
+        Generation<Game> copies = empty(generation.getChromosomeSize(),
+                new int[]{generation.getBoardWidth(), generation.getBoardHeight()});
+        copies.setSpawnSeed(generation.getSpawnSeed());
+        generation.getChromosomeList().forEach(game -> copies.add(new Game(copies, game.getGeneList().clone())));
+        return copies;
+    }
+
+    /**
+     * Check that two games ended in the same state
+     * @param expected
+     * @param actual
+     * @param what the kind of game checked, in the messages
+     */
+    public static void assertSameGame(Game expected, Game actual, String what) {
+        assertArrayEquals(expected.getPackedBoard(), actual.getPackedBoard(), "Different boards " + what);
+        assertEquals(expected.getScore().get(), actual.getScore().get(), "Different scores " + what);
+        assertEquals(expected.getMoviments().get(), actual.getMoviments().get(), "Different moviments " + what);
+    }
+
+    /**
+     * Check that the evaluator plays each game like the swipes on the screen
+     * @param generation
+     */
+    public static void assertSameAsSwipe(Generation<Game> generation) {
+        Evaluator evaluator = new Evaluator();
+        for (int c = 0; c < generation.size(); c++) {
+            Game game = (Game) generation.get(c);
+            Game copy = new Game(generation, game.getGeneList().clone());
+            evaluator.evaluate(copy);
+            for (int movement : game.getGeneList()) {
+                game.swipe(MovimentEnum.find(movement));
+            }
+            assertSameGame(game, copy, "from the swipes");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Chromosome;
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationEventTest {
+
+    @Test
+    void of() {
+        Generation<Game> generation = evaluated(GENERATION_LENGTH);
+        GenerationEvent event = GenerationEvent.of(generation);
+        assertEquals(GENERATION_LENGTH, event.getSize());
+        assertEquals(generation.getChromosomeList().mapToInt(Chromosome::getFitness).max().getAsInt(),
+                event.getBestFitness(), "Wrong best fitness");
+        assertEquals(event.getBestFitness(), event.getEliteFitness()[0], "Best is not the first elite");
+        assertTrue(event.getWorstFitness() <= event.getMeanFitness(), "Wrong mean fitness");
+    }
+}
@@ -0,0 +1,30 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationPipelineTest {
+
+    @Test
+    void prefetch() {
+        Generation<Game> generation = random(GENERATION_LENGTH);
+        Evaluator evaluator = new Evaluator();
+        evaluator.evaluate(generation);
+        try (GenerationPipeline pipeline = new GenerationPipeline(evaluator)) {
+            for (int g = 0; g < 3; g++) {
+                pipeline.prefetch(generation);
+                assertTrue(pipeline.isPending(), "Nothing in preparation");
+                Generation<Game> next = pipeline.take();
+                assertFalse(pipeline.isPending(), "Generation taken twice");
+                assertEquals(generation.getId() + 1, next.getId(), "Not the next generation");
+                assertFalse(next.getChromosomeList().anyMatch(Game::isRunning), "Next generation not evaluated");
+                generation = next;
+            }
+            assertNull(pipeline.poll(), "Generation without preparation");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenomeArchiveTest {
+
+    @Test
+    void reopen(@TempDir Path directory) throws IOException {
+        Generation<Game> generation = random(GENERATION_LENGTH);
+        try (GenomeArchive archive = new GenomeArchive(directory, 16)) {
+            assertTrue(archive.isWritable(), "First archive can not write");
+            FitnessMemo memo = new FitnessMemo();
+            memo.setArchive(archive);
+            Evaluator evaluator = new Evaluator();
+            evaluator.setMemo(memo);
+            evaluator.evaluate(generation);
+            assertEquals(GENERATION_LENGTH, archive.size(), "Results lost when the index was full");
+            assertEquals(32, archive.capacity(), "Full index not grown while running");
+            try (GenomeArchive reader = new GenomeArchive(directory)) {
+                assertFalse(reader.isWritable(), "Second archive can write");
+            }
+        }
+
+        try (GenomeArchive archive = new GenomeArchive(directory)) {
+            assertEquals(32, archive.capacity(), "Index size not kept");
+            FitnessMemo memo = new FitnessMemo();
+            memo.setArchive(archive);
+            Evaluator evaluator = new Evaluator();
+            evaluator.setMemo(memo);
+            Generation<Game> duplicates = copies(generation);
+            evaluator.evaluate(duplicates);
+            assertTrue(memo.getArchived() > 0, "Nothing found in the archive");
+            assertEquals(GENERATION_LENGTH, archive.size(), "Missing results saved after growing");
+            for (int c = 0; c < GENERATION_LENGTH; c++) {
+                assertEquals(generation.get(c).getFitness(), duplicates.get(c).getFitness(), "Wrong fitness from the archive");
+                assertArrayEquals(((Game) generation.get(c)).getPackedBoard(), ((Game) duplicates.get(c)).getPackedBoard(),
+                        "Wrong board from the archive");
+            }
+        }
+    }
+
+    @Test
+    void maxCapacity(@TempDir Path directory) {
+        assertThrows(IllegalArgumentException.class, () -> new GenomeArchive(directory, GenomeArchive.MAX_CAPACITY * 2),
+                "Index over the mapping limit");
+    }
+}
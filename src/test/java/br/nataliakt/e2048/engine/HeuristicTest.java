@@ -0,0 +1,84 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicTest {
+
+    @Test
+    void features() {
+        Random random = new Random(2048);
+        int[] features = new int[Heuristic.COUNT];
+        for (int[] boardSize : BOARD_SIZES) {
+            BoardEngine engine = BoardEngine.of(boardSize[0], boardSize[1]);
+            long[] board = new long[engine.words()];
+            for (int repeat = 0; repeat < 200; repeat++) {
+                for (int i = 0; i < boardSize[1]; i++) {
+                    for (int j = 0; j < boardSize[0]; j++) {
+                        engine.set(board, 0, i, j, random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(6));
+                    }
+                }
+                Heuristic.features(engine, board, 0, 10, features);
+                assertArrayEquals(naiveFeatures(engine, board, 10), features,
+                        "Wrong features in " + boardSize[0] + "x" + boardSize[1]);
+            }
+        }
+
+        Generation<Game> generation = empty(CHROMOSOME_LENGTH);
+        Heuristic heuristic = new Heuristic(1, 100, -10, -5, 50, 20);
+        generation.setHeuristic(heuristic);
+        fill(generation, 4, Game.class);
+        new Evaluator().evaluate(generation);
+        generation.getChromosomeList().forEach(game -> {
+            BoardEngine engine = game.getEngine();
+            int[] expected = naiveFeatures(engine, game.getPackedBoard(), game.getScore().get());
+            assertEquals(heuristic.fitness(expected), game.getFitness(), "Wrong heuristic fitness");
+            assertEquals(game.getScore().get(), Heuristic.score().fitness(expected), "Score heuristic is not the score");
+        });
+    }
+
+    private static int[] naiveFeatures(BoardEngine engine, long[] board, int score) {
+        int width = engine.getWidth();
+        int height = engine.getHeight();
+        int[] features = new int[Heuristic.COUNT];
+        features[Heuristic.SCORE] = score;
+        int max = 0;
+        for (int line = 0; line < height + width; line++) {
+            boolean row = line < height;
+            int length = row ? width : height;
+            int last = 0;
+            int up = 0;
+            int down = 0;
+            for (int k = 0; k < length; k++) {
+                int cell = row ? engine.get(board, 0, line, k) : engine.get(board, 0, k, line - height);
+                if (cell == 0) {
+                    features[Heuristic.EMPTY] += row ? 1 : 0;
+                    continue;
+                }
+                max = Math.max(max, cell);
+                if (last != 0) {
+                    features[Heuristic.MERGES] += cell == last ? 1 : 0;
+                    features[Heuristic.SMOOTHNESS] += Math.abs(cell - last);
+                    up += Math.max(0, cell - last);
+                    down += Math.max(0, last - cell);
+                }
+                last = cell;
+            }
+            features[Heuristic.MONOTONICITY] += Math.min(up, down);
+        }
+        int[] corners = {engine.get(board, 0, 0, 0), engine.get(board, 0, 0, width - 1),
+                engine.get(board, 0, height - 1, 0), engine.get(board, 0, height - 1, width - 1)};
+        for (int corner : corners) {
+            if (max > 0 && corner == max) {
+                features[Heuristic.CORNER] = max;
+            }
+        }
+        return features;
+    }
+}
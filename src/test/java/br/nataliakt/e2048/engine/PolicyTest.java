@@ -0,0 +1,44 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.MovimentEnum;
+import br.nataliakt.e2048.model.PolicyGame;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyTest {
+
+    @Test
+    void playUntilStuck() {
+        for (int[] boardSize : BOARD_SIZES) {
+            Generation<PolicyGame> generation = fill(empty(1 << 8, boardSize), GENERATION_LENGTH, PolicyGame.class);
+            Evaluator evaluator = new Evaluator();
+            evaluator.evaluate(generation);
+            for (int c = 0; c < generation.size(); c++) {
+                PolicyGame game = (PolicyGame) generation.get(c);
+                assertFalse(game.isRunning(), "Policy not played");
+                int[] swipes = game.getSwipes();
+                assertEquals(game.getMoviments().get(), swipes.length, "Wrong swipes");
+
+                PolicyGame copy = new PolicyGame(generation, game.getGeneList().clone());
+                for (int swipe : swipes) {
+                    copy.swipe(MovimentEnum.find(swipe));
+                }
+                assertArrayEquals(game.getPackedBoard(), copy.getPackedBoard(), "Different boards");
+                assertEquals(game.getScore().get(), copy.getScore().get(), "Different scores");
+                assertFalse(game.getEngine().canMove(copy.getPackedBoard(), 0), "Policy stopped before the end");
+
+                Replay.Frame frame = Replay.record(game).at(swipes.length);
+                assertArrayEquals(game.getPackedBoard(), frame.getBoard(), "Replay of the policy differs");
+            }
+            PolicyGame policy = (PolicyGame) generation.get(0);
+            Game script = new Game(generation, policy.getGeneList().clone());
+            assertNotEquals(FitnessMemo.key(policy), FitnessMemo.key(script), "Policy and script with the same key");
+            Generation<PolicyGame> next = generation.nextGeneration(generation.getChromosomeClass());
+            assertTrue(next.getChromosomeList().allMatch(game -> game instanceof PolicyGame), "Children not policies");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.nataliakt.e2048.engine;
+
+import br.nataliakt.e2048.ga.Generation;
+import br.nataliakt.e2048.model.Game;
+import br.nataliakt.e2048.model.MovimentEnum;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    @Test
+    void frames() {
+        Generation<Game> generation = evaluated(4);
+        generation.getChromosomeList().forEach(game -> {
+            byte[] bytes = Replay.record(game).toBytes();
+            assertTrue(bytes.length < 400, "Replay with " + bytes.length + " bytes");
+            Replay replay = Replay.fromBytes(bytes);
+            assertEquals(game.getId(), replay.getChromosomeId());
+            assertArrayEquals(game.getGeneList(), replay.getGeneList(), "Wrong genes");
+
+            Replay.Frame last = replay.at(replay.size());
+            assertArrayEquals(game.getPackedBoard(), last.getBoard(), "Wrong final board");
+            assertEquals(game.getScore().get(), last.getScore(), "Wrong final score");
+            assertEquals(game.getMoviments().get(), last.getMoviments(), "Wrong final moviments");
+
+            Game legacy = new Game(generation, game.getGeneList().clone());
+            for (int i = 0; i < CHROMOSOME_LENGTH; i += 37) {
+                Replay.Frame frame = replay.at(i);
+                assertArrayEquals(legacy.getPackedBoard(), frame.getBoard(), "Wrong board at " + i);
+                assertEquals(legacy.getScore().get(), frame.getScore(), "Wrong score at " + i);
+                for (int g = i; g < Math.min(i + 37, CHROMOSOME_LENGTH); g++) {
+                    legacy.swipe(MovimentEnum.find(legacy.get(g)));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package br.nataliakt.e2048.ga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncPoolTest {
+
+    @Test
+    void replaceWorst() {
+        Generation<Chromosome> owner = empty(6);
+        AsyncPool pool = new AsyncPool(3);
+        for (int size = 1; size <= 5; size++) {
+            pool.offer(new Chromosome(owner, new int[size]));
+        }
+        assertEquals(3, pool.size(), "Pool out of its size");
+        assertEquals(3, pool.worstFitness(), "Worst chromosome not replaced");
+        assertEquals(5, pool.best().getFitness());
+        assertFalse(pool.offer(new Chromosome(owner, new int[2])), "Worse chromosome kept");
+        assertEquals(5, pool.select(16, ThreadLocalRandom.current()).getFitness(), "Tournament without the best");
+    }
+}
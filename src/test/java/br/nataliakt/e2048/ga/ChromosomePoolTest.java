@@ -0,0 +1,78 @@
+package br.nataliakt.e2048.ga;
+
+import br.nataliakt.e2048.engine.Evaluator;
+import br.nataliakt.e2048.model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChromosomePoolTest {
+
+    @Test
+    void steadyState() {
+        Generation<Game> generation = empty(CHROMOSOME_LENGTH);
+        generation.setElitism(2);
+        generation.setPool(new ChromosomePool());
+        fill(generation, GENERATION_LENGTH, Game.class);
+        Evaluator evaluator = new Evaluator();
+        evaluator.evaluate(generation);
+        Set<Game> objects = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<int[]> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // The first two generations fill the pool, the next ones only take from it
+        for (int g = 0; g < 6; g++) {
+            if (g < 2) {
+                generation.getChromosomeList().forEach(game -> {
+                    objects.add(game);
+                    buffers.add(game.getGeneList());
+                });
+            } else {
+                generation.getChromosomeList().forEach(game -> {
+                    assertTrue(objects.contains(game), "Game built in the steady state");
+                    assertTrue(buffers.contains(game.getGeneList()), "Gene list built in the steady state");
+                });
+            }
+            Generation<Game> next = generation.nextGeneration(Game.class);
+            evaluator.evaluate(next);
+            generation.recycle();
+            generation = next;
+        }
+        assertTrue(generation.getPool().getReused() > 0, "Nothing reused");
+        assertEquals(GENERATION_LENGTH, generation.getChromosomeList().mapToLong(Chromosome::getId).distinct().count(),
+                "Reused games kept their ids");
+
+        // A reused game plays like a new one with the same genes
+        assertSameAsSwipe(generation);
+        for (int c = 0; c < generation.size(); c++) {
+            Game game = (Game) generation.get(c);
+            Game copy = new Game(generation, game.getGeneList().clone());
+            new Evaluator().evaluate(copy);
+            assertArrayEquals(copy.getPackedBoard(), game.getPackedBoard(), "Reused game played other board");
+            assertEquals(copy.getScore().get(), game.getScore().get(), "Reused game with other score");
+        }
+    }
+
+    @Test
+    void keepOthers() {
+        Generation<Chromosome> shorter = empty(6);
+        Generation<Chromosome> longer = empty(8);
+        ChromosomePool pool = new ChromosomePool(2);
+        Chromosome old = new Chromosome(longer, new int[8]);
+        pool.release(old);
+        pool.release(new Chromosome(shorter, new int[6]));
+
+        assertNull(pool.acquire(Game.class, longer), "Chromosome reused as a game");
+        assertSame(old, pool.acquire(Chromosome.class, longer), "Older chromosome of the size not found");
+        assertEquals(1, pool.size(), "Chromosome of the other size dropped");
+        assertNull(pool.acquire(Chromosome.class, longer), "Chromosome reused twice");
+
+        pool.release(new Chromosome(shorter, new int[6]));
+        pool.release(new Chromosome(shorter, new int[6]));
+        assertEquals(2, pool.size(), "Pool out of its capacity");
+    }
+}
@@ -0,0 +1,75 @@
+package br.nataliakt.e2048.ga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossoverOperatorTest {
+
+    private static final int GENE_LIMIT = 4;
+    private static final int[] SIZES = {1, 2, 3, 4, 31, 32, 33, 400};
+
+    @Test
+    void packedGenes() {
+        int bits = PackedGenes.bitsPerGene(GENE_LIMIT);
+        assertEquals(2, bits, "Wrong bits per gene");
+        assertEquals(1, PackedGenes.bitsPerGene(2), "Wrong bits per gene of 2");
+        assertEquals(4, PackedGenes.bitsPerGene(9), "Wrong bits per gene of 9");
+
+        int[] genes = random(400);
+        long[] packed = PackedGenes.pack(genes, bits);
+        assertEquals(13, packed.length, "Wrong number of words");
+        assertArrayEquals(genes, PackedGenes.unpack(packed, genes.length, bits), "Wrong unpack");
+
+        int[] other = genes.clone();
+        other[123] = (other[123] + 1) % GENE_LIMIT;
+        assertEquals(123, PackedGenes.commonPrefix(packed, PackedGenes.pack(other, bits), 400, bits),
+                "Wrong common prefix");
+    }
+
+    @Test
+    void kPoint() {
+        check(new KPointCrossover(5), true);
+    }
+
+    @Test
+    void uniform() {
+        check(new UniformCrossover(), false);
+    }
+
+    @Test
+    void prefix() {
+        check(new PrefixCrossover(0.5), true);
+    }
+
+    private static void check(CrossoverOperator operator, boolean keepsStart) {
+        int bits = PackedGenes.bitsPerGene(GENE_LIMIT);
+        for (int size : SIZES) {
+            int[] mom = random(size);
+            int[] dad = random(size);
+            long[] child1 = new long[PackedGenes.words(size, bits)];
+            long[] child2 = new long[child1.length];
+            operator.crossover(PackedGenes.pack(mom, bits), PackedGenes.pack(dad, bits),
+                    child1, child2, size, bits, ThreadLocalRandom.current());
+            int[] genes1 = PackedGenes.unpack(child1, size, bits);
+            int[] genes2 = PackedGenes.unpack(child2, size, bits);
+            for (int i = 0; i < size; i++) {
+                assertTrue((genes1[i] == mom[i] && genes2[i] == dad[i]) ||
+                        (genes1[i] == dad[i] && genes2[i] == mom[i]), "Gene not from the parents, size " + size);
+            }
+            if (keepsStart) {
+                assertEquals(mom[0], genes1[0], "First child should start with the first parent");
+            }
+        }
+    }
+
+    private static int[] random(int size) {
+        int[] genes = new int[size];
+        for (int i = 0; i < size; i++) {
+            genes[i] = ThreadLocalRandom.current().nextInt(GENE_LIMIT);
+        }
+        return genes;
+    }
+}
@@ -0,0 +1,38 @@
+package br.nataliakt.e2048.ga;
+
+import br.nataliakt.e2048.engine.GameFixtures;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiversityTest {
+
+    private static final int GENERATION_LENGTH = 10;
+    private static final int CHROMOSOME_LENGTH = 6;
+
+    @Test
+    void clones() {
+        Generation<Chromosome> clones = empty(CHROMOSOME_LENGTH);
+        int[] geneList = {0, 1, 2, 3, 0, 1};
+        for (int c = 0; c < GENERATION_LENGTH; c++) {
+            clones.add(new Chromosome(clones, geneList.clone()));
+        }
+        Diversity collapsed = clones.getDiversity();
+        assertEquals(0, collapsed.getDistance(), "Distance between clones");
+        assertEquals(0, collapsed.getEntropy(), 1e-9, "Entropy of clones");
+        assertEquals(1.0 / GENERATION_LENGTH, collapsed.getDistinct(), 1e-9, "Distinct clones");
+
+        Chromosome other = new Chromosome(clones, new int[]{3, 1, 2, 0, 0, 1});
+        assertEquals(2, PackedGenes.distance(clones.get(0).getPackedGenes(), other.getPackedGenes(),
+                PackedGenes.bitsPerGene(GENE_LIMIT)), "Wrong Hamming distance");
+    }
+
+    @Test
+    void random() {
+        Diversity diverse = fill(GameFixtures.<Chromosome>empty(CHROMOSOME_LENGTH), GENERATION_LENGTH, Chromosome.class)
+                .getDiversity();
+        assertTrue(diverse.getDistance() > 0.4, "Random chromosomes too close: " + diverse);
+        assertTrue(diverse.getEntropy() > 0.4, "Random chromosomes with low entropy: " + diverse);
+    }
+}
@@ -33,6 +33,85 @@ class GenerationTest {
         System.out.println(next);
     }
 
+    @Test
+    void elitism() throws NoSuchMethodException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
+        Generation<Chromosome> current = new Generation<>(GENE_LIMIT, GENE_MUTATION,
+                CHROMOSOME_LENGTH, GENERATION_LENGTH, Chromosome.class);
+        current.setElitism(2);
+        Generation<Chromosome> next = current.nextGeneration(Chromosome.class);
+
+        assertEquals(GENERATION_LENGTH, next.size(), "Wrong size of the next generation");
+        assertEquals(2, next.getChromosomeList().filter(c -> current.getChromosomeList()
+                .anyMatch(old -> old == c)).count(), "Elite not carried over");
+        assertEquals(2, next.getElitism(), "Elitism not propagated");
+    }
+
+    @Test
+    void resize() throws NoSuchMethodException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
+        Generation<Chromosome> current = new Generation<>(GENE_LIMIT, GENE_MUTATION,
+                CHROMOSOME_LENGTH, GENERATION_LENGTH, Chromosome.class);
+        current.setElitism(2);
+        Generation<Chromosome> bigger = current.nextGeneration(Chromosome.class, GENERATION_LENGTH * 3);
+        assertEquals(GENERATION_LENGTH * 3, bigger.size(), "Generation not grown");
+        assertEquals(2, bigger.getChromosomeList().filter(c -> current.getChromosomeList()
+                .anyMatch(old -> old == c)).count(), "Elite not carried over");
+        bigger.setSteadyState(GENERATION_LENGTH);
+        Generation<Chromosome> smaller = bigger.nextGeneration(Chromosome.class, GENERATION_LENGTH);
+        assertEquals(GENERATION_LENGTH, smaller.size(), "Generation not shrunk");
+        assertEquals(GENERATION_LENGTH, smaller.getChromosomeList().filter(c -> bigger.getChromosomeList()
+                .anyMatch(old -> old == c)).count(), "Survivors not kept");
+    }
+
+    @Test
+    void steadyState() throws NoSuchMethodException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
+        Generation<Chromosome> current = new Generation<>(GENE_LIMIT, GENE_MUTATION,
+                CHROMOSOME_LENGTH, GENERATION_LENGTH, Chromosome.class);
+        current.setSteadyState(3);
+        Generation<Chromosome> next = current.nextGeneration(Chromosome.class);
+
+        assertEquals(GENERATION_LENGTH, next.size(), "Wrong size of the next generation");
+        for (int i = 0; i < GENERATION_LENGTH; i++) {
+            assertNotNull(next.get(i), "Empty slot in the next generation");
+        }
+        assertEquals(GENERATION_LENGTH - 3, next.getChromosomeList().filter(c -> current.getChromosomeList()
+                .anyMatch(old -> old == c)).count(), "Wrong number of survivors");
+    }
+
+    @Test
+    void multiObjective() throws NoSuchMethodException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
+        Generation<Chromosome> current = new Generation<>(GENE_LIMIT, GENE_MUTATION,
+                CHROMOSOME_LENGTH, GENERATION_LENGTH, Chromosome.class);
+        current.setMultiObjective(true);
+        current.setElitism(1);
+        assertEquals(GENERATION_LENGTH, current.getParetoFront().size(),
+                "Equal fitness must be a single front");
+        Generation<Chromosome> next = current.nextGeneration(Chromosome.class);
+        assertEquals(GENERATION_LENGTH, next.size(), "Wrong size of the next generation");
+        assertTrue(next.isMultiObjective(), "Multi-objective not propagated");
+    }
+
+    @Test
+    void adaptiveMutation() {
+        AdaptiveMutation adaptive = new AdaptiveMutation(0.1, 0.4, 2, 0.001, 0.1);
+        assertEquals(0.01, adaptive.adapt(0.005, new Diversity(0.05, 0, 1)), 1e-9, "Chance not raised");
+        assertEquals(0.0025, adaptive.adapt(0.005, new Diversity(0.5, 1, 1)), 1e-9, "Chance not lowered");
+        assertEquals(0.005, adaptive.adapt(0.005, new Diversity(0.2, 1, 1)), 1e-9, "Chance changed in the band");
+        assertEquals(0.1, adaptive.adapt(0.08, new Diversity(0, 0, 0)), 1e-9, "Chance above the limit");
+
+        Generation<Chromosome> clones = new Generation<>(GENE_LIMIT, GENE_MUTATION, CHROMOSOME_LENGTH);
+        for (int c = 0; c < GENERATION_LENGTH; c++) {
+            clones.add(new Chromosome(clones, new int[CHROMOSOME_LENGTH]));
+        }
+        clones.setAdaptiveMutation(adaptive);
+        Generation next = clones.nextGeneration(Chromosome.class);
+        assertEquals(0.01, next.getMutation(), 1e-9, "Collapsed generation without more mutation");
+        assertSame(adaptive, next.getAdaptiveMutation(), "Controller not carried over");
+    }
+
     @Test
     void crossover() throws InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException {
         Chromosome mom = generation.getRouletteRandom();
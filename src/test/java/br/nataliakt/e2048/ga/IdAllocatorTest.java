@@ -0,0 +1,31 @@
+package br.nataliakt.e2048.ga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    @Test
+    void threads() throws InterruptedException {
+        IdAllocator ids = new IdAllocator(1, 16);
+        Set<Long> seen = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    seen.add(ids.next());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, seen.size(), "Repeated ids");
+    }
+}
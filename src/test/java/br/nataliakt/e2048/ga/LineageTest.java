@@ -0,0 +1,42 @@
+package br.nataliakt.e2048.ga;
+
+import br.nataliakt.e2048.engine.GameFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineageTest {
+
+    private static final int GENERATION_LENGTH = 10;
+    private static final int CHROMOSOME_LENGTH = 6;
+
+    @Test
+    void line() {
+        Generation<Chromosome> current = fill(GameFixtures.<Chromosome>empty(CHROMOSOME_LENGTH), GENERATION_LENGTH,
+                Chromosome.class);
+        Lineage lineage = new Lineage();
+        current.setLineage(lineage);
+        Set<Long> first = new HashSet<>();
+        current.getChromosomeList().forEach(chromosome -> first.add(chromosome.getId()));
+        Generation<Chromosome> second = current.nextGeneration(Chromosome.class);
+        Generation<Chromosome> third = second.nextGeneration(Chromosome.class);
+        assertEquals(2 * GENERATION_LENGTH, lineage.size(), "Children not recorded");
+
+        Chromosome child = third.get(0);
+        long[] parents = lineage.getParents(child.getId());
+        assertEquals(child.getOrigin(), parents[0], "Mom is not the origin");
+        assertEquals(third.getId(), lineage.getGeneration(child.getId()));
+        assertTrue(lineage.getCut(child.getId()) >= 0);
+        long[] line = lineage.getLine(child.getId());
+        assertEquals(3, line.length, "Line does not reach the first generation");
+        assertTrue(first.contains(line[2]), "Line does not end in the first generation");
+        for (long ancestor : lineage.getAncestors(child.getId(), 2)) {
+            assertTrue(lineage.contains(ancestor) || first.contains(ancestor), "Unknown ancestor");
+        }
+        assertEquals(0, lineage.getParents(line[2]).length, "First generation with parents");
+    }
+}
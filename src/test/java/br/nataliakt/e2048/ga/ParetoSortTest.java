@@ -0,0 +1,95 @@
+package br.nataliakt.e2048.ga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParetoSortTest {
+
+    @Test
+    void ranks() {
+        Random random = new Random(2048);
+        for (int m = 1; m <= 4; m++) {
+            for (int repeat = 0; repeat < 20; repeat++) {
+                int count = 1 + random.nextInt(300);
+                int[] objectives = new int[count * m];
+                for (int i = 0; i < objectives.length; i++) {
+                    objectives[i] = random.nextInt(12);
+                }
+                assertArrayEquals(naiveRanks(objectives, count, m), ParetoSort.ranks(objectives, count, m),
+                        "Wrong fronts with " + m + " objectives");
+            }
+        }
+    }
+
+    @Test
+    void crowding() {
+        int[] objectives = {0, 10, 2, 8, 5, 5, 10, 0, 1, 1};
+        int[] ranks = ParetoSort.ranks(objectives, 5, 2);
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1}, ranks);
+        double[] crowding = ParetoSort.crowding(objectives, 5, 2, ranks);
+        assertEquals(Double.POSITIVE_INFINITY, crowding[0]);
+        assertEquals(Double.POSITIVE_INFINITY, crowding[3]);
+        assertEquals(1.0, crowding[1], 1e-9);
+        assertEquals(1.6, crowding[2], 1e-9);
+        assertEquals(Double.POSITIVE_INFINITY, crowding[4]);
+        int[] order = ParetoSort.order(ranks, crowding);
+        assertEquals(2, order[2], "Bigger distance not first");
+        assertEquals(1, order[3]);
+        assertEquals(4, order[4], "Second front not last");
+    }
+
+    @Test
+    void large() {
+        Random random = new Random(1);
+        int count = 50000;
+        int[] objectives = new int[count * 3];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = random.nextInt(100000);
+        }
+        long start = System.nanoTime();
+        int[] ranks = ParetoSort.ranks(objectives, count, 3);
+        ParetoSort.order(ranks, ParetoSort.crowding(objectives, count, 3, ranks));
+        System.out.println("NSGA-II sort of " + count + ": " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    private static int[] naiveRanks(int[] objectives, int count, int m) {
+        int[] ranks = new int[count];
+        boolean[] done = new boolean[count];
+        int left = count;
+        for (int rank = 0; left > 0; rank++) {
+            boolean[] front = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                if (done[i]) {
+                    continue;
+                }
+                boolean dominated = false;
+                for (int j = 0; j < count && !dominated; j++) {
+                    dominated = !done[j] && j != i && dominates(objectives, m, j, i);
+                }
+                front[i] = !dominated;
+            }
+            for (int i = 0; i < count; i++) {
+                if (front[i]) {
+                    ranks[i] = rank;
+                    done[i] = true;
+                    left--;
+                }
+            }
+        }
+        return ranks;
+    }
+
+    private static boolean dominates(int[] objectives, int m, int a, int b) {
+        boolean better = false;
+        for (int k = 0; k < m; k++) {
+            if (objectives[a * m + k] < objectives[b * m + k]) {
+                return false;
+            }
+            better |= objectives[a * m + k] > objectives[b * m + k];
+        }
+        return better;
+    }
+}
@@ -0,0 +1,59 @@
+package br.nataliakt.e2048.ga;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectionStrategyTest {
+
+    private static final int[] FITNESS = {0, 10, 0, 50, 5, 0, 20, 15};
+    private static final int SELECTIONS = 2000;
+
+    @Test
+    void roulette() {
+        int[] count = count(new RouletteSelection());
+        assertEquals(0, count[0] + count[2] + count[5], "Zero fitness selected by roulette");
+    }
+
+    @Test
+    void rouletteZeroTotal() {
+        int index = new RouletteSelection().prepare(new int[4]).select(ThreadLocalRandom.current());
+        assertTrue(index >= 0 && index < 4, "Wrong index with zero total");
+    }
+
+    @Test
+    void tournament() {
+        int[] count = count(new TournamentSelection(FITNESS.length * 4));
+        assertTrue(count[3] > SELECTIONS / 2, "The best should win the big tournaments");
+    }
+
+    @Test
+    void rank() {
+        int[] count = count(new RankSelection(2));
+        assertTrue(count[3] > count[1], "Better rank selected less times");
+    }
+
+    @Test
+    void stochasticUniversalSampling() {
+        int[] selected = new StochasticUniversalSampling().prepare(FITNESS)
+                .select(FITNESS.length * 10, ThreadLocalRandom.current());
+        int[] count = new int[FITNESS.length];
+        for (int index : selected) {
+            count[index]++;
+        }
+        // Total 100 and 80 pointers, each index gets its expected copies rounded
+        assertTrue(count[3] == 40, "Wrong number of copies of the best");
+        assertEquals(0, count[0] + count[2] + count[5], "Zero fitness selected by sampling");
+    }
+
+    private static int[] count(SelectionStrategy strategy) {
+        SelectionStrategy.Selector selector = strategy.prepare(FITNESS);
+        int[] count = new int[FITNESS.length];
+        for (int i = 0; i < SELECTIONS; i++) {
+            count[selector.select(ThreadLocalRandom.current())]++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,32 @@
+package br.nataliakt.e2048.model;
+
+import br.nataliakt.e2048.engine.Evaluator;
+import br.nataliakt.e2048.ga.Generation;
+import org.junit.jupiter.api.Test;
+
+import static br.nataliakt.e2048.engine.GameFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyGameTest {
+
+    @Test
+    void screen() {
+        Generation<PolicyGame> generation = fill(empty(1 << 8), 4, PolicyGame.class);
+        generation.getChromosomeList().forEach(game -> {
+            PolicyGame copy = new PolicyGame(generation, game.getGeneList().clone());
+            new Evaluator().evaluate(copy);
+
+            // A few swipes of the screen timer, then the step where the rest is played at once
+            for (int step = 0; step < 20; step++) {
+                int moviment = game.nextMoviment(step);
+                if (moviment < 0) {
+                    break;
+                }
+                game.swipe(MovimentEnum.find(moviment));
+            }
+            assertEquals(-1, game.nextMoviment(PolicyGame.SCREEN_MOVIMENTS), "Swipe after the screen limit");
+            assertFalse(game.isRunning(), "Game not finished after the screen limit");
+            assertSameGame(copy, game, "after the screen limit");
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package br.nataliakt.e2048.sweep;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepRunnerTest {
+
+    @Test
+    void grid() {
+        SweepSpec spec = new SweepSpec(SweepSpec.Parameter.parse("0.001,0.01"),
+                SweepSpec.Parameter.parse("50,100"), SweepSpec.Parameter.values(8));
+        List<SweepConfig> configs = spec.grid();
+        assertEquals(4, configs.size(), "Wrong number of combinations");
+        assertEquals(100, configs.get(3).getChromosomeSize());
+
+        SweepSpec range = new SweepSpec(SweepSpec.Parameter.parse("0.001..0.01"),
+                SweepSpec.Parameter.values(50), SweepSpec.Parameter.values(8));
+        assertThrows(IllegalArgumentException.class, range::grid);
+        for (SweepConfig config : range.random(10, new Random(1))) {
+            assertTrue(config.getMutation() >= 0.001 && config.getMutation() <= 0.01, "Mutation out of the range");
+        }
+    }
+
+    @Test
+    void successiveHalving() throws InterruptedException, IOException {
+        SweepSpec spec = new SweepSpec(SweepSpec.Parameter.parse("0.001,0.005,0.01,0.05"),
+                SweepSpec.Parameter.values(60), SweepSpec.Parameter.values(8, 32));
+        SweepRunner runner = new SweepRunner(4, 2, 1, 4, 2, 2048);
+        List<SweepResult> results = runner.run(spec.grid());
+        assertEquals(8, results.size(), "Missing results");
+
+        int finished = 0;
+        for (SweepResult result : results) {
+            if (result.getStoppedAt() < 0) {
+                finished++;
+                assertEquals(4, result.getGenerations(), "Finished run without all the generations");
+            } else {
+                assertTrue(result.getGenerations() < 4, "Stopped run played all the generations");
+            }
+            assertTrue(result.getCores() >= 1 && result.getCores() <= 2, "Budget out of the limits");
+        }
+        assertEquals(2, finished, "Wrong number of runs after halving");
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).getBestFitness() >= results.get(i).getBestFitness(), "Results not sorted");
+        }
+
+        StringBuilder table = new StringBuilder();
+        SweepRunner.writeTable(results, table);
+        assertEquals(results.size() + 1, table.toString().split("\n").length, "Wrong number of lines");
+    }
+
+    @Test
+    void dispatch() throws InterruptedException {
+        // 3 cores run while 2 wait, the run of 1 core must start in the free one
+        CountDownLatch small = new CountDownLatch(1);
+        List<Integer> started = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            SweepRunner.dispatch(Arrays.asList(2, 1, 3), 4, Integer::intValue, run -> {
+                started.add(run);
+                if (run == 1) {
+                    small.countDown();
+                } else if (run == 3 && !small.await(10, TimeUnit.SECONDS)) {
+                    throw new AssertionError("Small run blocked behind a waiting big one");
+                }
+            }, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(3, started.size(), "Run not played");
+    }
+}